@@ -0,0 +1,77 @@
+package com.haufe.beercatalogue.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+public final class Caches {
+
+    /* Loading helper for the Caffeine caches. Cache.get(key, loader) runs the loader inside a
+       ConcurrentHashMap bin lock, a monitor that pins a virtual thread to its carrier for the whole
+       database call on Java 21. Here only an empty future is installed under the lock and the caller
+       loads outside of it, other callers for the same key wait on the future without pinning. */
+
+    private Caches() {}
+
+    /**
+     * Returns the cached value for the key, loading it in the calling thread on a miss.
+     * Null values and loader exceptions are not cached.
+     */
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> cached = cache.get(key, (k, executor) -> loading);
+        if (cached != loading)
+            return join(cached);
+
+        // An invalidation while loading drops the future, so a stale value is never stored
+        try {
+            V value = loader.apply(key);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the cached values of the keys, loading all missing ones with a single call of the
+     * loader in the calling thread. Keys the loader leaves out are missing from the result and
+     * not cached. Loader exceptions are not cached.
+     */
+    public static <K, V> Map<K, V> getAll(AsyncCache<K, V> cache, Iterable<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        CompletableFuture<Map<K, V>> loading = new CompletableFuture<>();
+        AtomicReference<Set<K>> missing = new AtomicReference<>();
+        CompletableFuture<Map<K, V>> all = cache.getAll(keys, (absent, executor) -> {
+            missing.set(Set.copyOf(absent));
+            return loading;
+        });
+        if (missing.get() == null)
+            return join(all);
+
+        // As for a single key, an invalidation while loading drops the pending entry
+        try {
+            loading.complete(loader.apply(missing.get()));
+        } catch (RuntimeException | Error ex) {
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        return join(all);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw ex;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.haufe.beercatalogue.cache;
+
+import java.util.function.LongSupplier;
+
+import org.springframework.context.event.EventListener;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+public class CountCache {
+
+    /* Caches the total number of elements of list queries by normalized filter key.
+       Every write to the counted entity type clears it, so each count query runs at most
+       once per data change instead of once per page view. */
+
+    private final Class<?> entityType;
+    private final AsyncCache<Object, Long> counts;
+
+    public CountCache(Class<?> entityType, boolean enabled, long maxSize) {
+        this.entityType = entityType;
+        this.counts = enabled ? Caffeine.newBuilder().maximumSize(maxSize).recordStats().buildAsync() : null;
+    }
+
+    /**
+     * Returns the cached count for the key, running the counter on a miss.
+     */
+    public long get(Object key, LongSupplier counter) {
+        if (counts == null)
+            return counter.getAsLong();
+
+        return Caches.get(counts, key, k -> counter.getAsLong());
+    }
+
+    /**
+     * Publishes the size, hit, miss and eviction metrics of the cache under the given name.
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        if (counts != null)
+            CaffeineCacheMetrics.monitor(registry, counts, name);
+    }
+
+    /**
+     * Drops every cached count, for writes that bypassed JPA.
+     */
+    public void invalidateAll() {
+        if (counts != null)
+            counts.synchronous().invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        if (counts != null && event.isAbout(entityType))
+            counts.synchronous().invalidateAll();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.haufe.beercatalogue.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.context.event.EventListener;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+public class DetailCache<E, T> {
+
+    /* Read-through cache of detail DTOs by entity id, bounded by size and time since the entry
+       was loaded. Every write to an entity evicts just that entity, including after a rollback. */
+
+    private final Class<E> entityType;
+    private final Function<E, Long> idOf;
+    private final AsyncCache<Long, T> details;
+
+    public DetailCache(Class<E> entityType, Function<E, Long> idOf, boolean enabled, long maxSize, Duration ttl) {
+        this.entityType = entityType;
+        this.idOf = idOf;
+        this.details = enabled
+            ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().buildAsync()
+            : null;
+    }
+
+    /**
+     * Returns the cached detail of the entity, running the loader on a miss. Nothing is
+     * cached when the loader throws.
+     */
+    public T get(Long id, Function<Long, T> loader) {
+        if (details == null)
+            return loader.apply(id);
+
+        return Caches.get(details, id, loader);
+    }
+
+    /**
+     * Returns the details of the entities by id, loading all the uncached ones with a single call of
+     * the loader. Ids the loader doesn't return are missing from the result.
+     */
+    public Map<Long, T> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, T>> loader) {
+        if (details == null)
+            return loader.apply(Set.copyOf(ids));
+
+        return Caches.getAll(details, ids, loader);
+    }
+
+    /**
+     * Returns the cached detail of the entity or null, without loading it.
+     */
+    public T getIfPresent(Long id) {
+        return details == null ? null : details.synchronous().getIfPresent(id);
+    }
+
+    public long size() {
+        return details == null ? 0 : details.synchronous().estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return details == null ? CacheStats.empty() : details.synchronous().stats();
+    }
+
+    /**
+     * Publishes the size, hit, miss and eviction metrics of the cache under the given name.
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        if (details != null)
+            CaffeineCacheMetrics.monitor(registry, details, name);
+    }
+
+    /**
+     * Drops every cached detail, for writes that bypassed JPA.
+     */
+    public void invalidateAll() {
+        if (details != null)
+            details.synchronous().invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        if (details != null && event.isAbout(entityType))
+            details.synchronous().invalidate(idOf.apply(entityType.cast(event.getEntity())));
+    }
+
+}
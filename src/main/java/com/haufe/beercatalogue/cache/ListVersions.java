@@ -0,0 +1,51 @@
+package com.haufe.beercatalogue.cache;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+
+@Component
+public class ListVersions {
+
+    /* Counts the writes to each listed entity type, so list responses get an ETag that changes
+       whenever any of their entities does and can be revalidated without running a query.
+       The count lives in memory, the startup time in the ETag keeps it from being reused after a restart. */
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Class<?>, AtomicLong> versions = Map.of(
+        Beer.class, new AtomicLong(),
+        Manufacturer.class, new AtomicLong());
+
+    /**
+     * Returns the current ETag of lists showing the given entity types, it changes with a write to any of them.
+     */
+    public String eTag(Class<?>... entityTypes) {
+        StringBuilder eTag = new StringBuilder("\"").append(epoch);
+        for (Class<?> entityType : entityTypes)
+            eTag.append('-').append(versions.get(entityType).get());
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * Moves the lists of the given entity type to a new ETag, for writes that bypassed JPA.
+     */
+    public void invalidate(Class<?> entityType) {
+        versions.get(entityType).incrementAndGet();
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        // Rollbacks bump the version too, the entity may have been seen before the rollback
+        versions.forEach((type, version) -> {
+            if (event.isAbout(type))
+                version.incrementAndGet();
+        });
+    }
+
+}
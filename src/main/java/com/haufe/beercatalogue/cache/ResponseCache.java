@@ -0,0 +1,117 @@
+package com.haufe.beercatalogue.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.persistence.EntityManager;
+
+public class ResponseCache {
+
+    /* Caches response bodies already serialized to JSON (and gzipped), by request key, so a hit
+       costs neither a query nor serialization. Every write to one of the watched entity types
+       starts a new generation: entries are keyed by generation, so a response built while a
+       write was in flight can't be served once the write is visible. */
+
+    /**
+     * A cached response body, gzipped is null when compression is disabled.
+     */
+    public record Entry(byte[] json, byte[] gzipped) {}
+
+    private record Key(long generation, Object key) {}
+
+    private final Set<Class<?>> entityTypes;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final boolean gzip;
+    private final AsyncCache<Key, Entry> responses;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(Set<Class<?>> entityTypes, ObjectMapper objectMapper, EntityManager entityManager,
+            boolean enabled, long maxSize, Duration ttl, boolean gzip) {
+        this.entityTypes = entityTypes;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.gzip = gzip;
+        this.responses = enabled
+            ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().buildAsync()
+            : null;
+    }
+
+    /**
+     * Returns the cached response for the key, building and serializing it on a miss.
+     * Nothing is cached when building the body throws.
+     */
+    public Entry get(Object key, Supplier<?> body) {
+        if (responses == null)
+            return serialize(body.get());
+
+        // Pending writes of the current transaction start a new generation once flushed, as they would before a query
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            entityManager.flush();
+
+        return Caches.get(responses, new Key(generation.get(), key), k -> serialize(body.get()));
+    }
+
+    /**
+     * Publishes the size, hit, miss and eviction metrics of the cache under the given name.
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        if (responses != null)
+            CaffeineCacheMetrics.monitor(registry, responses, name);
+    }
+
+    /**
+     * Starts a new generation and drops every cached response, for writes that bypassed JPA.
+     */
+    public void invalidateAll() {
+        if (responses == null)
+            return;
+
+        generation.incrementAndGet();
+        responses.synchronous().invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        if (entityTypes.stream().anyMatch(event::isAbout))
+            invalidateAll();
+    }
+
+    private Entry serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Entry(json, gzip ? gzip(json) : null);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+}
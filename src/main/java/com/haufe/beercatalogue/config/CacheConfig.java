@@ -0,0 +1,93 @@
+package com.haufe.beercatalogue.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.DetailCache;
+import com.haufe.beercatalogue.cache.ResponseCache;
+import com.haufe.beercatalogue.dto.BeerDetailDTO;
+import com.haufe.beercatalogue.dto.ManufacturerDetailDTO;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${beercatalogue.count-cache.enabled:true}")
+    private boolean countCacheEnabled;
+
+    @Value("${beercatalogue.count-cache.max-size:1000}")
+    private long countCacheMaxSize;
+
+    @Value("${beercatalogue.detail-cache.enabled:true}")
+    private boolean detailCacheEnabled;
+
+    @Value("${beercatalogue.detail-cache.max-size:10000}")
+    private long detailCacheMaxSize;
+
+    @Value("${beercatalogue.detail-cache.ttl:10m}")
+    private Duration detailCacheTtl;
+
+    @Value("${beercatalogue.list-cache.enabled:true}")
+    private boolean listCacheEnabled;
+
+    @Value("${beercatalogue.list-cache.max-size:500}")
+    private long listCacheMaxSize;
+
+    @Value("${beercatalogue.list-cache.ttl:10m}")
+    private Duration listCacheTtl;
+
+    @Value("${beercatalogue.list-cache.gzip:true}")
+    private boolean listCacheGzip;
+
+    @Value("${beercatalogue.facet-cache.enabled:true}")
+    private boolean facetCacheEnabled;
+
+    @Value("${beercatalogue.facet-cache.max-size:500}")
+    private long facetCacheMaxSize;
+
+    @Value("${beercatalogue.facet-cache.ttl:10m}")
+    private Duration facetCacheTtl;
+
+    @Bean
+    public CountCache beerCountCache() {
+        return new CountCache(Beer.class, countCacheEnabled, countCacheMaxSize);
+    }
+
+    @Bean
+    public CountCache manufacturerCountCache() {
+        return new CountCache(Manufacturer.class, countCacheEnabled, countCacheMaxSize);
+    }
+
+    @Bean
+    public DetailCache<Beer, BeerDetailDTO> beerDetailCache() {
+        return new DetailCache<>(Beer.class, Beer::getId, detailCacheEnabled, detailCacheMaxSize, detailCacheTtl);
+    }
+
+    @Bean
+    public DetailCache<Manufacturer, ManufacturerDetailDTO> manufacturerDetailCache() {
+        return new DetailCache<>(Manufacturer.class, Manufacturer::getId, detailCacheEnabled, detailCacheMaxSize, detailCacheTtl);
+    }
+
+    @Bean
+    public ResponseCache beerListResponseCache(ObjectMapper objectMapper, EntityManager entityManager) {
+        return new ResponseCache(Set.of(Beer.class, Manufacturer.class), objectMapper, entityManager,
+            listCacheEnabled, listCacheMaxSize, listCacheTtl, listCacheGzip);
+    }
+
+    @Bean
+    public ResponseCache beerFacetResponseCache(ObjectMapper objectMapper, EntityManager entityManager) {
+        return new ResponseCache(Set.of(Beer.class), objectMapper, entityManager,
+            facetCacheEnabled, facetCacheMaxSize, facetCacheTtl, false);
+    }
+
+}
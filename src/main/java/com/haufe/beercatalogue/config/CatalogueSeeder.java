@@ -0,0 +1,214 @@
+package com.haufe.beercatalogue.config;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.DetailCache;
+import com.haufe.beercatalogue.cache.ListVersions;
+import com.haufe.beercatalogue.cache.ResponseCache;
+import com.haufe.beercatalogue.datasource.ReplicaDataSource;
+import com.haufe.beercatalogue.index.BeerFullTextIndex;
+import com.haufe.beercatalogue.index.BeerSearchIndex;
+import com.haufe.beercatalogue.index.NameSuggestIndex;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Component
+@Profile("seed")
+public class CatalogueSeeder implements CommandLineRunner {
+
+    /* Generates a production sized synthetic catalogue at startup for capacity and performance
+       testing. Rows are written with batched JDBC inserts that bypass JPA, one transaction per batch,
+       and the same random seed always produces the same catalogue. */
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogueSeeder.class);
+
+    // Beer styles with their share of the catalogue and their typical abv (mean and deviation)
+    private record Style(String name, int weight, double abv, double abvDeviation) {}
+
+    private static final List<Style> STYLES = List.of(
+        new Style("IPA", 22, 6.5, 0.8),
+        new Style("Lager", 18, 4.8, 0.5),
+        new Style("Pale Ale", 12, 5.2, 0.6),
+        new Style("Stout", 8, 6.0, 1.5),
+        new Style("Pilsner", 8, 4.9, 0.4),
+        new Style("Wheat", 7, 5.0, 0.6),
+        new Style("Porter", 5, 5.8, 1.0),
+        new Style("Sour", 5, 4.5, 1.2),
+        new Style("Saison", 4, 6.5, 1.0),
+        new Style("Amber Ale", 4, 5.5, 0.6),
+        new Style("Bock", 3, 6.8, 0.8),
+        new Style("Double IPA", 2, 8.5, 0.8),
+        new Style("Barleywine", 2, 10.5, 1.5));
+
+    private static final String[] ADJECTIVES = { "Golden", "Hazy", "Dark", "Wild", "Old", "Red", "Black", "Crisp", "Amber",
+        "Royal", "Lucky", "Midnight", "Rusty", "Silver", "Stormy", "Hoppy", "Smoky", "Bitter", "Velvet", "Frozen" };
+    private static final String[] NOUNS = { "River", "Mountain", "Harvest", "Anchor", "Fox", "Owl", "Lantern", "Harbor",
+        "Meadow", "Summit", "Forest", "Crown", "Raven", "Canyon", "Orchard", "Island", "Comet", "Bridge", "Valley", "Monk" };
+    private static final String[] FLAVOURS = { "citrus", "pine", "caramel", "chocolate", "coffee", "stone fruit", "biscuit",
+        "honey", "tropical fruit", "toffee", "clove", "banana", "berries", "roasted malt", "bread crust" };
+    private static final String[] COUNTRIES = { "US", "US", "US", "UK", "UK", "Germany", "Germany", "Belgium", "Czechia",
+        "Ireland", "Netherlands", "Spain", "Italy", "Japan", "Canada", "Australia" };
+    private static final String[] BREWERY_SUFFIXES = { "Brewing", "Brewery", "Brewing Co", "Beer Works", "Ales" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BeerSearchIndex searchIndex;
+    private final BeerFullTextIndex fullTextIndex;
+    private final NameSuggestIndex<Beer> beerSuggestIndex;
+    private final NameSuggestIndex<Manufacturer> manufacturerSuggestIndex;
+    private final List<CountCache> countCaches;
+    private final List<DetailCache<?, ?>> detailCaches;
+    private final List<ResponseCache> responseCaches;
+    private final ListVersions listVersions;
+    private final ReplicaDataSource replicaDataSource;
+    private final int manufacturers;
+    private final int beers;
+    private final long randomSeed;
+    private final int batchSize;
+
+    public CatalogueSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory, BeerSearchIndex searchIndex, BeerFullTextIndex fullTextIndex,
+            NameSuggestIndex<Beer> beerSuggestIndex, NameSuggestIndex<Manufacturer> manufacturerSuggestIndex,
+            List<CountCache> countCaches, List<DetailCache<?, ?>> detailCaches, List<ResponseCache> responseCaches,
+            ListVersions listVersions, ReplicaDataSource replicaDataSource,
+            @Value("${beercatalogue.seed.manufacturers:1000}") int manufacturers,
+            @Value("${beercatalogue.seed.beers:1000000}") int beers,
+            @Value("${beercatalogue.seed.random-seed:42}") long randomSeed,
+            @Value("${beercatalogue.seed.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.searchIndex = searchIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.beerSuggestIndex = beerSuggestIndex;
+        this.manufacturerSuggestIndex = manufacturerSuggestIndex;
+        this.countCaches = countCaches;
+        this.detailCaches = detailCaches;
+        this.responseCaches = responseCaches;
+        this.listVersions = listVersions;
+        this.replicaDataSource = replicaDataSource;
+        this.manufacturers = manufacturers;
+        this.beers = beers;
+        this.randomSeed = randomSeed;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        long started = System.nanoTime();
+        Random random = new Random(randomSeed);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Long> manufacturerIds = seedManufacturers(random, now);
+        seedBeers(random, now, manufacturerIds);
+        invalidateCatalogue();
+        log.info("Seeded {} manufacturers and {} beers in {} ms", manufacturers, beers, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Drops what the search indexes and caches hold of the catalogue, after rows were written or
+     * deleted with plain JDBC. They didn't go through JPA, so no change event told them, and the
+     * replicas may not have the rows yet when the indexes reload.
+     */
+    public void invalidateCatalogue() {
+        replicaDataSource.written();
+        searchIndex.invalidate();
+        fullTextIndex.invalidate();
+        beerSuggestIndex.invalidate();
+        manufacturerSuggestIndex.invalidate();
+        countCaches.forEach(CountCache::invalidateAll);
+        detailCaches.forEach(DetailCache::invalidateAll);
+        responseCaches.forEach(ResponseCache::invalidateAll);
+        listVersions.invalidate(Beer.class);
+        listVersions.invalidate(Manufacturer.class);
+    }
+
+    private List<Long> seedManufacturers(Random random, Timestamp now) {
+        Long lastId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from manufacturer", Long.class);
+
+        List<Object[]> rows = new ArrayList<>(manufacturers);
+        for (int i = 0; i < manufacturers; i++) {
+            String name = pick(random, NOUNS) + " " + pick(random, BREWERY_SUFFIXES) + " " + (i + 1);
+            rows.add(new Object[] { name, pick(random, COUNTRIES), 0L, now });
+        }
+        insert("insert into manufacturer (name, country, version, last_modified) values (?, ?, ?, ?)", rows);
+
+        return jdbcTemplate.queryForList("select id from manufacturer where id > ? order by id", Long.class, lastId);
+    }
+
+    private void seedBeers(Random random, Timestamp now, List<Long> manufacturerIds) {
+        if (beers == 0 || manufacturerIds.isEmpty())
+            return;
+
+        // Take the ids from the beer sequence, past every block Hibernate may already hold, and move
+        // the sequence beyond them so beers created later through JPA don't collide with the seeded ones
+        String nextValue = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+            .getSequenceSupport().getSequenceNextValString("beer_seq");
+        long firstId = jdbcTemplate.queryForObject(nextValue, Long.class);
+        jdbcTemplate.execute("alter sequence beer_seq restart with " + (firstId + beers + 50));
+
+        int totalWeight = STYLES.stream().mapToInt(Style::weight).sum();
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < beers; i++) {
+            Style style = pickStyle(random.nextInt(totalWeight));
+            String name = pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + style.name();
+            double abv = Math.round(Math.clamp(style.abv() + random.nextGaussian() * style.abvDeviation(), 0.5, 20) * 10) / 10.0;
+            String description = "A " + style.name().toLowerCase() + " with notes of " + pick(random, FLAVOURS)
+                + " and " + pick(random, FLAVOURS);
+            // Skewed towards the first manufacturers, a few large breweries and a long tail of small ones
+            double r = random.nextDouble();
+            Long manufacturerId = manufacturerIds.get((int) (r * r * manufacturerIds.size()));
+
+            rows.add(new Object[] { firstId + i, name, abv, style.name(), description, manufacturerId, 0L, now });
+            if (rows.size() == batchSize) {
+                insertBeers(rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty())
+            insertBeers(rows);
+    }
+
+    private void insertBeers(List<Object[]> rows) {
+        insert("insert into beer (id, name, abv, type, description, manufacturer_id, version, last_modified) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        }
+    }
+
+    private static Style pickStyle(int ticket) {
+        for (Style style : STYLES) {
+            ticket -= style.weight();
+            if (ticket < 0)
+                return style;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.haufe.beercatalogue.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.haufe.beercatalogue.datasource.ReplicaDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /* Sends read-only transactions to the read replicas and everything else to the primary.
+       The application's DataSource only fetches the physical connection at the first statement,
+       by then the transaction manager has marked it read-only and it is taken from the replicas.
+       Without replicas configured every connection comes from the primary. After a write, reads stay
+       on the primary for the maximum lag of the replicas */
+
+    @Value("${beercatalogue.datasource.replicas:}")
+    private List<String> replicaUrls;
+
+    @Value("${beercatalogue.datasource.replica-retry:30s}")
+    private Duration replicaRetry;
+
+    @Value("${beercatalogue.datasource.replica-max-lag:5s}")
+    private Duration replicaMaxLag;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pools of the replicas, with the credentials and settings of the primary pool. A replica that
+     * is down at startup doesn't fail it, it is skipped until it comes back.
+     */
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank())
+                continue;
+
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, replicaRetry, replicaMaxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        if (replicaDataSource.hasReplicas())
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+}
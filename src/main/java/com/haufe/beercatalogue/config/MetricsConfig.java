@@ -0,0 +1,35 @@
+package com.haufe.beercatalogue.config;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.DetailCache;
+import com.haufe.beercatalogue.cache.ResponseCache;
+import com.haufe.beercatalogue.service.CustomUserDetailsService;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    /* Metrics not covered by Spring Boot's auto-configuration. Request latencies, Hikari,
+       Hibernate and JVM metrics are bound by Boot, the @Timed service methods by its TimedAspect. */
+
+    /**
+     * Publishes the hit rates of the application caches, tagged with the name of their bean.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(Map<String, CountCache> countCaches, Map<String, DetailCache<?, ?>> detailCaches,
+            Map<String, ResponseCache> responseCaches, CustomUserDetailsService userDetailsService) {
+        return registry -> {
+            countCaches.forEach((name, cache) -> cache.bindTo(registry, name));
+            detailCaches.forEach((name, cache) -> cache.bindTo(registry, name));
+            responseCaches.forEach((name, cache) -> cache.bindTo(registry, name));
+            userDetailsService.bindTo(registry, "userCache");
+        };
+    }
+
+}
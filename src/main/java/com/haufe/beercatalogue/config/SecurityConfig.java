@@ -1,17 +1,23 @@
 package com.haufe.beercatalogue.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import com.haufe.beercatalogue.exception.CustomAccessDeniedHandler;
+import com.haufe.beercatalogue.security.TokenAuthenticationFilter;
+import com.haufe.beercatalogue.security.TokenService;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,6 +31,12 @@ public class SecurityConfig {
     @Autowired
     private CustomAccessDeniedHandler accessDeniedHandler;
 
+    @Autowired
+    private TokenService tokenService;
+
+    // Port of the separate management server once it started, -1 while the actuator shares the application port
+    private volatile int managementPort = -1;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -39,6 +51,9 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
+            // No server-side sessions, every request authenticates with a token or HTTP Basic
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(
                     "/swagger-ui/**",       // Swagger UI static content
@@ -46,6 +61,16 @@ public class SecurityConfig {
                     "/swagger-ui.html"      // legacy URL, just in case
                 ).permitAll()
 
+                // The management port only serves the probes and the metrics scraper inside the cluster
+                .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+
+                // On the application port probes are public, metrics are for admins
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/prometheus").hasRole("ADMIN")
+
+                // Anyone can exchange credentials for a token
+                .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
+
                 // Anonymous users: allow GET requests to beers and manufacturers
                 .requestMatchers(HttpMethod.GET, "/api/beers/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/manufacturers/**").permitAll()
@@ -63,9 +88,6 @@ public class SecurityConfig {
                 // Any other requests must be authenticated
                 .anyRequest().authenticated()
             )
-            .formLogin(form -> form
-                .permitAll()
-            )
             .httpBasic(basic -> {})
             .exceptionHandling(exception -> exception.accessDeniedHandler(accessDeniedHandler)
         );
@@ -73,4 +95,10 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace()))
+            managementPort = event.getWebServer().getPort();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.haufe.beercatalogue.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManager;
+
+import com.haufe.beercatalogue.index.NameSuggestIndex;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+
+@Configuration
+public class SuggestConfig {
+
+    @Bean
+    public NameSuggestIndex<Beer> beerSuggestIndex(BeerRepository beerRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        return new NameSuggestIndex<>(Beer.class, Beer::getId, Beer::getName, () -> {
+            Map<Long, String> names = new HashMap<>();
+            beerRepository.findIndexEntries().forEach(entry -> names.put(entry.getId(), entry.getName()));
+            return names;
+        }, entityManager, transactionManager);
+    }
+
+    @Bean
+    public NameSuggestIndex<Manufacturer> manufacturerSuggestIndex(ManufacturerRepository manufacturerRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        return new NameSuggestIndex<>(Manufacturer.class, Manufacturer::getId, Manufacturer::getName, () -> {
+            Map<Long, String> names = new HashMap<>();
+            manufacturerRepository.findNameEntries().forEach(entry -> names.put(entry.getId(), entry.getName()));
+            return names;
+        }, entityManager, transactionManager);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.haufe.beercatalogue.controller;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.haufe.beercatalogue.cache.DetailCache;
+import com.haufe.beercatalogue.dto.CacheStatsDTO;
+import com.haufe.beercatalogue.index.BeerFullTextIndex;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final Map<String, DetailCache<?, ?>> detailCaches;
+    private final BeerFullTextIndex fullTextIndex;
+
+    public AdminController(Map<String, DetailCache<?, ?>> detailCaches, BeerFullTextIndex fullTextIndex) {
+        this.detailCaches = detailCaches;
+        this.fullTextIndex = fullTextIndex;
+    }
+
+    @Operation(summary = "Get the size and hit statistics of the detail caches, by cache name. Only accessible to ADMIN role")
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, CacheStatsDTO>> getCacheStats() {
+        Map<String, CacheStatsDTO> result = new TreeMap<>();
+        detailCaches.forEach((name, cache) -> {
+            CacheStats stats = cache.stats();
+            result.put(name, new CacheStatsDTO(cache.size(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+        });
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Rebuild the full-text search index from the database, returning how many beers it holds. " +
+        "For recovery, the index is otherwise kept current by every write. Only accessible to ADMIN role")
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSearchIndex() {
+        return ResponseEntity.ok(Map.of("indexed", fullTextIndex.rebuild()));
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.haufe.beercatalogue.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.haufe.beercatalogue.dto.LoginDTO;
+import com.haufe.beercatalogue.dto.TokenResponseDTO;
+import com.haufe.beercatalogue.service.AuthService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final AuthService service;
+
+    public AuthController(AuthService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Exchange username and password for an access token. " +
+        "Send it as 'Authorization: Bearer <token>' instead of HTTP Basic credentials.")
+    @PostMapping("/login")
+    public ResponseEntity<TokenResponseDTO> login(@Valid @RequestBody LoginDTO login) {
+        return ResponseEntity.ok(service.login(login));
+    }
+
+}
@@ -1,53 +1,234 @@
 package com.haufe.beercatalogue.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
+import com.haufe.beercatalogue.cache.ResponseCache;
+import com.haufe.beercatalogue.dto.BatchResponse;
 import com.haufe.beercatalogue.dto.BeerDetailDTO;
+import com.haufe.beercatalogue.dto.BeerFacetsDTO;
 import com.haufe.beercatalogue.dto.BeerSummaryDTO;
 import com.haufe.beercatalogue.dto.PageResponse;
+import com.haufe.beercatalogue.dto.SuggestionDTO;
 import com.haufe.beercatalogue.dto.BeerCreateDTO;
+import com.haufe.beercatalogue.dto.CursorPageResponse;
+import com.haufe.beercatalogue.dto.BulkImportResultDTO;
+import com.haufe.beercatalogue.exception.BadRequestException;
+import com.haufe.beercatalogue.service.BeerImportService;
 import com.haufe.beercatalogue.service.BeerService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.data.domain.Page;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/beers")
 public class BeerController {
 
+    private record ListKey(String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId,
+            String sortBy, String dir, int page, int size, boolean count) {}
+
+    private record FacetKey(String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId) {}
+
     private final BeerService service;
+    private final BeerImportService importService;
+    private final ResponseCache listResponseCache;
+    private final ResponseCache facetResponseCache;
 
-    public BeerController(BeerService service) {
+    public BeerController(BeerService service, BeerImportService importService,
+            @Qualifier("beerListResponseCache") ResponseCache listResponseCache,
+            @Qualifier("beerFacetResponseCache") ResponseCache facetResponseCache) {
         this.service = service;
+        this.importService = importService;
+        this.listResponseCache = listResponseCache;
+        this.facetResponseCache = facetResponseCache;
     }
 
     @Operation(summary = "Get a paginated list of beers." +
-        "This endpoint supports filtering by name, type, abv, and manufacturer ID, as well as sorting by any field.")
+        "This endpoint supports filtering by name, type, abv (exact or a range), and manufacturer ID, as well as sorting by any field.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageResponse.class)))
     @GetMapping
-    public ResponseEntity<PageResponse<BeerSummaryDTO>> getList(
+    public ResponseEntity<byte[]> getList(
             @Parameter(description = "If present, filter the list by name") @RequestParam(required = false) String name,
             @Parameter(description = "If present, filter the list by type") @RequestParam(required = false) String type,
             @Parameter(description = "If present, filter the list by abv") @RequestParam(required = false) Double abv,
+            @Parameter(description = "If present, only list beers with at least this abv") @RequestParam(required = false) Double abvMin,
+            @Parameter(description = "If present, only list beers with at most this abv") @RequestParam(required = false) Double abvMax,
             @Parameter(description = "If present, filter the list by manufacturerId") @RequestParam(required = false) Long manufacturerId,
             @Parameter(description = "Can be 'name', 'type', 'abv' or 'manufacturer'") @RequestParam(required = false) String sortBy,
             @Parameter(description = "Must be 'asc' or 'desc'") @RequestParam(required = false, defaultValue = "asc") String dir,
             @Parameter(description = "Number of the page to fetch") @RequestParam(required = false, defaultValue = "0") int page,
-            @Parameter(description = "Size of the page to fetch") @RequestParam(required = false, defaultValue = "50") int size) {
+            @Parameter(description = "Size of the page to fetch") @RequestParam(required = false, defaultValue = "50") int size,
+            @Parameter(description = "If false, skip counting the total elements and only report whether there is a next page") @RequestParam(required = false, defaultValue = "true") boolean count,
+            WebRequest request) {
+
+        String eTag = service.getListETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
+        // Hot parameter combinations are served from the already serialized response
+        ListKey key = new ListKey(normalize(name), normalize(type), abv, abvMin, abvMax, manufacturerId, sortBy, normalize(dir), page, size, count);
+        ResponseCache.Entry response = listResponseCache.get(key, () -> count
+            ? new PageResponse<>(service.getList(page, size, sortBy, dir, name, type, abv, abvMin, abvMax, manufacturerId))
+            : new PageResponse<>(service.getSlice(page, size, sortBy, dir, name, type, abv, abvMin, abvMax, manufacturerId)));
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(eTag);
+        if (response.gzipped() == null)
+            return builder.body(response.json());
+
+        builder.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip"))
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzipped());
+
+        return builder.body(response.json());
+    }
+
+    @Operation(summary = "Get a list of beers using keyset pagination. " +
+        "Pass an empty cursor to get the first page and the returned nextCursor to get the following ones. " +
+        "Supports the same filters and sorting as the paginated list.")
+    @GetMapping(params = { "cursor", "!ids" })
+    public ResponseEntity<CursorPageResponse<BeerSummaryDTO>> getListAfter(
+            @Parameter(description = "Cursor returned by the previous page, empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "If present, filter the list by name") @RequestParam(required = false) String name,
+            @Parameter(description = "If present, filter the list by type") @RequestParam(required = false) String type,
+            @Parameter(description = "If present, filter the list by abv") @RequestParam(required = false) Double abv,
+            @Parameter(description = "If present, only list beers with at least this abv") @RequestParam(required = false) Double abvMin,
+            @Parameter(description = "If present, only list beers with at most this abv") @RequestParam(required = false) Double abvMax,
+            @Parameter(description = "If present, filter the list by manufacturerId") @RequestParam(required = false) Long manufacturerId,
+            @Parameter(description = "Can be 'name', 'type', 'abv' or 'manufacturer'") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Must be 'asc' or 'desc'") @RequestParam(required = false, defaultValue = "asc") String dir,
+            @Parameter(description = "Size of the page to fetch") @RequestParam(required = false, defaultValue = "50") int size,
+            WebRequest request) {
+
+        String eTag = service.getListETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
+        return ResponseEntity.ok().eTag(eTag).body(service.getListAfter(cursor, size, sortBy, dir, name, type, abv, abvMin, abvMax, manufacturerId));
+    }
+
+    @Operation(summary = "Get several beers by their IDs in a single request, in the requested order. " +
+        "IDs of beers that don't exist are reported as missing. At most 100 IDs.")
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<BeerDetailDTO>> getByIds(
+            @Parameter(description = "Comma-separated IDs of the beers to retrieve") @RequestParam List<Long> ids,
+            @Parameter(hidden = true) @RequestParam(required = false) String cursor) {
+        // IDs are fetched as they are, a cursor would page through a list instead
+        if (cursor != null)
+            throw new BadRequestException("ids and cursor can't be combined");
+
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
+    @Operation(summary = "Search beers by words of their name, type, description or manufacturer name. " +
+        "Beers matching any of the words are returned, the most relevant first.")
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<BeerSummaryDTO>> search(
+            @Parameter(description = "Words to search for") @RequestParam String q,
+            @Parameter(description = "Number of the page to fetch") @RequestParam(required = false, defaultValue = "0") int page,
+            @Parameter(description = "Size of the page to fetch") @RequestParam(required = false, defaultValue = "50") int size,
+            WebRequest request) {
 
-        Page<BeerSummaryDTO> beerPage = service.getList(page, size, sortBy, dir, name, type, abv, manufacturerId);
-        return ResponseEntity.ok(new PageResponse<>(beerPage));
+        String eTag = service.getSearchETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
+        return ResponseEntity.ok().eTag(eTag).body(new PageResponse<>(service.search(q, page, size)));
+    }
+
+    @Operation(summary = "Suggest beers whose name has a word starting with the prefix, ignoring case and accents. " +
+        "Answered from memory, meant to be called on every keystroke of a search box.")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @Parameter(description = "Start of a word of the name") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions, at most 50") @RequestParam(required = false, defaultValue = "10") int limit,
+            WebRequest request) {
+
+        String eTag = service.getListETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
+        return ResponseEntity.ok().eTag(eTag).body(service.suggest(prefix, limit));
+    }
+
+    @Operation(summary = "Count the beers matching the filters per type, per manufacturer ID and per abv bucket, " +
+        "to show next to the filters of the list. Supports the same filters as the paginated list.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BeerFacetsDTO.class)))
+    @GetMapping("/facets")
+    public ResponseEntity<byte[]> getFacets(
+            @Parameter(description = "If present, filter the beers by name") @RequestParam(required = false) String name,
+            @Parameter(description = "If present, filter the beers by type") @RequestParam(required = false) String type,
+            @Parameter(description = "If present, filter the beers by abv") @RequestParam(required = false) Double abv,
+            @Parameter(description = "If present, only count beers with at least this abv") @RequestParam(required = false) Double abvMin,
+            @Parameter(description = "If present, only count beers with at most this abv") @RequestParam(required = false) Double abvMax,
+            @Parameter(description = "If present, filter the beers by manufacturerId") @RequestParam(required = false) Long manufacturerId,
+            WebRequest request) {
+
+        // Facets change with the same writes as the lists
+        String eTag = service.getListETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
+        FacetKey key = new FacetKey(normalize(name), normalize(type), abv, abvMin, abvMax, manufacturerId);
+        ResponseCache.Entry response = facetResponseCache.get(key,
+            () -> service.getFacets(name, type, abv, abvMin, abvMax, manufacturerId));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(eTag).body(response.json());
+    }
+
+    @Operation(summary = "Export every beer matching the filters as NDJSON (one beer per line) or CSV. " +
+        "The rows are streamed as they are read, so this is the way to pull the whole catalogue")
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "Must be 'ndjson' or 'csv'") @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @Parameter(description = "If present, filter the list by name") @RequestParam(required = false) String name,
+            @Parameter(description = "If present, filter the list by type") @RequestParam(required = false) String type,
+            @Parameter(description = "If present, filter the list by abv") @RequestParam(required = false) Double abv,
+            @Parameter(description = "If present, only list beers with at least this abv") @RequestParam(required = false) Double abvMin,
+            @Parameter(description = "If present, only list beers with at most this abv") @RequestParam(required = false) Double abvMax,
+            @Parameter(description = "If present, filter the list by manufacturerId") @RequestParam(required = false) Long manufacturerId,
+            @Parameter(description = "Can be 'name', 'type', 'abv' or 'manufacturer'") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Must be 'asc' or 'desc'") @RequestParam(required = false, defaultValue = "asc") String dir,
+            HttpServletResponse response) throws IOException {
+
+        switch (format) {
+            case "ndjson" -> {
+                response.setContentType("application/x-ndjson;charset=UTF-8");
+                service.exportNdjson(sortBy, dir, name, type, abv, abvMin, abvMax, manufacturerId, response.getOutputStream());
+            }
+            case "csv" -> {
+                response.setContentType("text/csv;charset=UTF-8");
+                service.exportCsv(sortBy, dir, name, type, abv, abvMin, abvMax, manufacturerId, response.getOutputStream());
+            }
+            default -> throw new BadRequestException("Invalid export format: " + format);
+        }
     }
 
     @Operation(summary = "Get a beer by its ID")
     @GetMapping("/{id}")
     public ResponseEntity<BeerDetailDTO> getById(
-            @Parameter(description = "ID of the beer to retrieve") @PathVariable Long id) {
-        return ResponseEntity.ok(service.getById(id));
+            @Parameter(description = "ID of the beer to retrieve") @PathVariable Long id,
+            WebRequest request) {
+        // Revalidations only read the version, the beer is loaded when it has changed
+        if (ConditionalRequests.isNotModified(request, () -> service.getVersion(id)))
+            return null;
+
+        BeerDetailDTO beer = service.getById(id);
+        return ConditionalRequests.ok(beer, beer.getVersion(), beer.getLastModified());
     }
 
     @Operation(summary = "Create a new beer. Only accessible to MANUFACTURER or ADMIN roles")
@@ -58,6 +239,18 @@ public class BeerController {
         return ResponseEntity.created(null).body(saved);
     }
 
+    @Operation(summary = "Create many beers at once from NDJSON (one beer per line) or CSV (with a header line). " +
+        "Rows are validated one by one, the invalid ones are skipped and reported by line number. Only accessible to MANUFACTURER or ADMIN roles")
+    @PostMapping(value = "/bulk", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<BulkImportResultDTO> bulkCreate(
+            @RequestHeader("Content-Type") String contentType,
+            InputStream body) throws IOException {
+        BulkImportResultDTO result = contentType.startsWith("text/csv")
+            ? importService.importCsv(body)
+            : importService.importNdjson(body);
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(summary = "Update an existing beer. Only accessible to MANUFACTURER or ADMIN roles")
     @PutMapping("/{id}")
     public ResponseEntity<BeerDetailDTO> update(
@@ -77,4 +270,8 @@ public class BeerController {
         return ResponseEntity.noContent().build();
     }
 
+    private static String normalize(String value) {
+        return (value == null || value.isBlank()) ? null : value.toLowerCase(Locale.ROOT);
+    }
+
 }
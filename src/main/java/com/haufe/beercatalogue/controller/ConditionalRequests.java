@@ -0,0 +1,49 @@
+package com.haufe.beercatalogue.controller;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.haufe.beercatalogue.repository.EntityVersion;
+
+final class ConditionalRequests {
+
+    /* Helpers for conditional GETs. The ETag of an entity is its version, so a client revalidating
+       with If-None-Match or If-Modified-Since can be answered from the version columns alone. */
+
+    private ConditionalRequests() {}
+
+    /**
+     * Checks the request's validators against the entity version, setting a 304 response if they
+     * match. Unconditional requests return false without looking the version up.
+     */
+    static boolean isNotModified(WebRequest request, Supplier<Optional<EntityVersion>> version) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null)
+            return false;
+
+        return version.get()
+            .map(v -> v.getLastModified() == null
+                ? request.checkNotModified(eTag(v.getVersion()))
+                : request.checkNotModified(eTag(v.getVersion()), v.getLastModified().toEpochMilli()))
+            .orElse(false);
+    }
+
+    /**
+     * Builds a 200 response carrying the ETag and Last-Modified of the entity.
+     */
+    static <T> ResponseEntity<T> ok(T body, Long version, Instant lastModified) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag(version));
+        if (lastModified != null)
+            response.lastModified(lastModified);
+        return response.body(body);
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+}
@@ -3,14 +3,18 @@ package com.haufe.beercatalogue.controller;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
+import com.haufe.beercatalogue.dto.BatchResponse;
 import com.haufe.beercatalogue.dto.ManufacturerCreateDTO;
 import com.haufe.beercatalogue.dto.ManufacturerDetailDTO;
 import com.haufe.beercatalogue.service.ManufacturerService;
 import com.haufe.beercatalogue.dto.PageResponse;
+import com.haufe.beercatalogue.dto.SuggestionDTO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
@@ -30,16 +34,53 @@ public class ManufacturerController {
     @GetMapping
     public ResponseEntity<PageResponse<ManufacturerDetailDTO>> getList(
             @Parameter(description = "Number of the page to fetch") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Size of the page to fetch") @RequestParam(defaultValue = "50") int size) {
+            @Parameter(description = "Size of the page to fetch") @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "If false, skip counting the total elements and only report whether there is a next page") @RequestParam(defaultValue = "true") boolean count,
+            WebRequest request) {
+        String eTag = service.getListETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(new PageResponse<>(service.getList(pageable)));
+        if (!count)
+            return ResponseEntity.ok().eTag(eTag).body(new PageResponse<>(service.getSlice(pageable)));
+
+        return ResponseEntity.ok().eTag(eTag).body(new PageResponse<>(service.getList(pageable)));
+    }
+
+    @Operation(summary = "Get several manufacturers by their IDs in a single request, in the requested order. " +
+        "IDs of manufacturers that don't exist are reported as missing. At most 100 IDs.")
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<ManufacturerDetailDTO>> getByIds(
+            @Parameter(description = "Comma-separated IDs of the manufacturers to retrieve") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
+    @Operation(summary = "Suggest manufacturers whose name has a word starting with the prefix, ignoring case and accents. " +
+        "Answered from memory, meant to be called on every keystroke of a search box.")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @Parameter(description = "Start of a word of the name") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions, at most 50") @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        String eTag = service.getListETag();
+        if (request.checkNotModified(eTag))
+            return null;
+
+        return ResponseEntity.ok().eTag(eTag).body(service.suggest(prefix, limit));
     }
 
     @Operation(summary = "Get a manufacturer by its ID")
     @GetMapping("/{id}")
     public ResponseEntity<ManufacturerDetailDTO> getById(
-            @Parameter(description = "ID of the manufacturer to retrieve") @PathVariable Long id) {
-        return ResponseEntity.ok(service.getById(id));
+            @Parameter(description = "ID of the manufacturer to retrieve") @PathVariable Long id,
+            WebRequest request) {
+        // Revalidations only read the version, the manufacturer is loaded when it has changed
+        if (ConditionalRequests.isNotModified(request, () -> service.getVersion(id)))
+            return null;
+
+        ManufacturerDetailDTO manufacturer = service.getById(id);
+        return ConditionalRequests.ok(manufacturer, manufacturer.getVersion(), manufacturer.getLastModified());
     }
 
     @Operation(summary = "Create a new manufacturer. Only accessible to ADMIN role and Manufacturer owner")
@@ -0,0 +1,130 @@
+package com.haufe.beercatalogue.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /* Hands out connections to the read replicas in turn. A replica that fails to give a connection
+       is skipped until the retry interval has passed, and with no replica left the primary serves
+       the read, so a replica outage slows reads down rather than failing them. For the maximum
+       replication lag after a catalogue write of this instance every read goes to the primary as
+       well, so the caches, indexes and ETags refilled by reads never pick up rows the write has
+       not reached on the replicas yet */
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryNanos;
+    private final long maxLagNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    // System.nanoTime() until which each replica is skipped, 0 for healthy ones
+    private final AtomicLongArray downUntil;
+    // System.nanoTime() until which reads go to the primary after a write, 0 when there was none
+    private final AtomicLong primaryUntil = new AtomicLong();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration retry, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryNanos = retry.toNanos();
+        this.maxLagNanos = maxLag.toNanos();
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Returns how many replicas are currently used, not skipped after a failure.
+     */
+    public int healthyReplicas() {
+        int healthy = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            if (isHealthy(i))
+                healthy++;
+        }
+        return healthy;
+    }
+
+    /**
+     * Returns whether reads are served by the primary while the replicas catch up with a recent write.
+     */
+    public boolean readsFromPrimary() {
+        long until = primaryUntil.get();
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    /**
+     * Sends the reads to the primary for the maximum replication lag from now on, for writes that
+     * bypassed JPA.
+     */
+    public void written() {
+        if (maxLagNanos > 0)
+            primaryUntil.set(Math.max(1, System.nanoTime() + maxLagNanos));
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        // Pending changes too, a read racing the commit must not see the replicas either
+        written();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readsFromPrimary())
+            return primary.getConnection();
+
+        int count = replicas.size();
+        int start = count == 0 ? 0 : Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int at = (start + i) % count;
+            if (!isHealthy(at))
+                continue;
+
+            try {
+                Connection connection = replicas.get(at).getConnection();
+                downUntil.set(at, 0);
+                return connection;
+            } catch (SQLException e) {
+                downUntil.set(at, Math.max(1, System.nanoTime() + retryNanos));
+                log.warn("Read replica {} unavailable, skipping it for {} ms: {}", at + 1, retryNanos / 1_000_000, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica connections always use the configured credentials");
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable)
+                closeable.close();
+        }
+    }
+
+    private boolean isHealthy(int at) {
+        long until = downUntil.get(at);
+        return until == 0 || System.nanoTime() - until >= 0;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.haufe.beercatalogue.dto;
+
+public class AbvBucketDTO {
+
+    // From inclusive, to exclusive
+    private double from;
+    private double to;
+    private long count;
+
+    public AbvBucketDTO(double from, double to, long count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    public double getFrom() { return from; }
+    public void setFrom(double from) { this.from = from; }
+    public double getTo() { return to; }
+    public void setTo(double to) { this.to = to; }
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,22 @@
+package com.haufe.beercatalogue.dto;
+
+import java.util.List;
+
+public class BatchResponse<T> {
+
+    /* Generic DTO for batch gets: the elements found, in the requested order, and the ids not found */
+
+    private List<T> content;
+    private List<Long> missing;
+
+    public BatchResponse(List<T> content, List<Long> missing) {
+        this.content = content;
+        this.missing = missing;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public List<Long> getMissing() { return missing; }
+    public void setMissing(List<Long> missing) { this.missing = missing; }
+
+}
@@ -1,5 +1,9 @@
 package com.haufe.beercatalogue.dto;
 
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class BeerDetailDTO {
     
     private Long id;
@@ -9,6 +13,12 @@ public class BeerDetailDTO {
     private String description;
     private Long manufacturerId;
 
+    // Not serialized, only used for the ETag and Last-Modified headers
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
+
     public BeerDetailDTO(Long id, String name, double abv, String type, String description, Long manufacturerId) {
         this.id = id;
         this.name = name;
@@ -30,5 +40,9 @@ public class BeerDetailDTO {
     public void setDescription(String description) { this.description = description; }
     public Long getManufacturerId() { return manufacturerId; }
     public void setManufacturerId(Long manufacturerId) { this.manufacturerId = manufacturerId; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public Instant getLastModified() { return lastModified; }
+    public void setLastModified(Instant lastModified) { this.lastModified = lastModified; }
     
 }
\ No newline at end of file
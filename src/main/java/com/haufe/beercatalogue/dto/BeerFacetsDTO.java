@@ -0,0 +1,28 @@
+package com.haufe.beercatalogue.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class BeerFacetsDTO {
+
+    private long total;
+    private Map<String, Long> types;
+    private Map<Long, Long> manufacturers;
+    private List<AbvBucketDTO> abv;
+
+    public BeerFacetsDTO(long total, Map<String, Long> types, Map<Long, Long> manufacturers, List<AbvBucketDTO> abv) {
+        this.total = total;
+        this.types = types;
+        this.manufacturers = manufacturers;
+        this.abv = abv;
+    }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public Map<String, Long> getTypes() { return types; }
+    public void setTypes(Map<String, Long> types) { this.types = types; }
+    public Map<Long, Long> getManufacturers() { return manufacturers; }
+    public void setManufacturers(Map<Long, Long> manufacturers) { this.manufacturers = manufacturers; }
+    public List<AbvBucketDTO> getAbv() { return abv; }
+    public void setAbv(List<AbvBucketDTO> abv) { this.abv = abv; }
+}
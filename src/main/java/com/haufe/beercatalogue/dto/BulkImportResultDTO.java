@@ -0,0 +1,23 @@
+package com.haufe.beercatalogue.dto;
+
+import java.util.List;
+
+public class BulkImportResultDTO {
+
+    private int imported;
+    private int failed;
+    private List<RowErrorDTO> errors;
+
+    public BulkImportResultDTO(int imported, int failed, List<RowErrorDTO> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public List<RowErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<RowErrorDTO> errors) { this.errors = errors; }
+}
@@ -0,0 +1,26 @@
+package com.haufe.beercatalogue.dto;
+
+import java.util.List;
+
+public class CursorPageResponse<T> {
+
+    /* Generic DTO for keyset paginated responses */
+
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor;
+
+    public CursorPageResponse(List<T> content, int pageSize, String nextCursor) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+}
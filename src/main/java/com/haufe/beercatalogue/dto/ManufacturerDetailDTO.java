@@ -1,11 +1,21 @@
 package com.haufe.beercatalogue.dto;
 
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class ManufacturerDetailDTO {
 
     private Long id;
     private String name;
     private String country;
 
+    // Not serialized, only used for the ETag and Last-Modified headers
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
+
     public ManufacturerDetailDTO(Long id, String name, String country) {
         this.id = id;
         this.name = name;
@@ -18,4 +28,8 @@ public class ManufacturerDetailDTO {
     public void setName(String name) { this.name = name; }
     public String getCountry() { return country; }
     public void setCountry(String country) { this.country = country; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public Instant getLastModified() { return lastModified; }
+    public void setLastModified(Instant lastModified) { this.lastModified = lastModified; }
 }
\ No newline at end of file
@@ -1,35 +1,44 @@
 package com.haufe.beercatalogue.dto;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import java.util.List;
 
 public class PageResponse<T> {
     
-    /* Generic DTO for paginated responses */
+    /* Generic DTO for paginated responses. Totals are null when the page was fetched without counting */
 
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private boolean hasNext;
+    private Long totalElements;
+    private Integer totalPages;
 
     public PageResponse(Page<T> page) {
-        this.content = page.getContent();
-        this.pageNumber = page.getNumber();
-        this.pageSize = page.getSize();
+        this((Slice<T>) page);
         this.totalElements = page.getTotalElements();
         this.totalPages = page.getTotalPages();
     }
 
+    public PageResponse(Slice<T> slice) {
+        this.content = slice.getContent();
+        this.pageNumber = slice.getNumber();
+        this.pageSize = slice.getSize();
+        this.hasNext = slice.hasNext();
+    }
+
     public List<T> getContent() { return content; }
     public void setContent(List<T> content) { this.content = content; }
     public int getPageNumber() { return pageNumber; }
     public void setPageNumber(int pageNumber) { this.pageNumber = pageNumber; }
     public int getPageSize() { return pageSize; }
     public void setPageSize(int pageSize) { this.pageSize = pageSize; }
-    public long getTotalElements() { return totalElements; }
-    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
-    public int getTotalPages() { return totalPages; }
-    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
 
-}
\ No newline at end of file
+}
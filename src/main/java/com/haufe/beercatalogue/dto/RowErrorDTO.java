@@ -0,0 +1,17 @@
+package com.haufe.beercatalogue.dto;
+
+public class RowErrorDTO {
+
+    private long line;
+    private String message;
+
+    public RowErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
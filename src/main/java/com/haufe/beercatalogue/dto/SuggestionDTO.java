@@ -0,0 +1,17 @@
+package com.haufe.beercatalogue.dto;
+
+public class SuggestionDTO {
+
+    private Long id;
+    private String name;
+
+    public SuggestionDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
@@ -0,0 +1,40 @@
+package com.haufe.beercatalogue.event;
+
+public class CatalogueChangedEvent {
+
+    /* Application event describing a write to a catalogue entity */
+
+    public enum Kind {
+        SAVED,      // entity was inserted or updated
+        REMOVED,    // entity was deleted
+        DISCARDED   // the transaction that wrote the entity was rolled back
+    }
+
+    private final Object entity;
+    private final Kind kind;
+    private final boolean pending;
+
+    public CatalogueChangedEvent(Object entity, Kind kind) {
+        this(entity, kind, false);
+    }
+
+    public CatalogueChangedEvent(Object entity, Kind kind, boolean pending) {
+        this.entity = entity;
+        this.kind = kind;
+        this.pending = pending;
+    }
+
+    public Object getEntity() { return entity; }
+    public Kind getKind() { return kind; }
+
+    /**
+     * True while the transaction that made the change is still open, the change is then only
+     * visible to that transaction. The outcome follows as a second, non-pending event.
+     */
+    public boolean isPending() { return pending; }
+
+    public boolean isAbout(Class<?> type) {
+        return type.isInstance(entity);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.haufe.beercatalogue.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.haufe.beercatalogue.event.CatalogueChangedEvent.Kind;
+
+public class CatalogueEntityListener {
+
+    /* JPA entity listener turning catalogue writes into CatalogueChangedEvents */
+
+    private final ApplicationEventPublisher publisher;
+
+    public CatalogueEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        publish(entity, Kind.SAVED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, Kind.REMOVED);
+    }
+
+    /**
+     * Publishes the change right away as pending, so caches evict early and reads later in the
+     * same transaction see it, and again once the transaction completes: committed changes for
+     * the shared state, rolled back ones as DISCARDED. Without a transaction the change is final.
+     */
+    private void publish(Object entity, Kind kind) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.publishEvent(new CatalogueChangedEvent(entity, kind));
+            return;
+        }
+
+        publisher.publishEvent(new CatalogueChangedEvent(entity, kind, true));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                Kind outcome = (status == STATUS_COMMITTED) ? kind : Kind.DISCARDED;
+                publisher.publishEvent(new CatalogueChangedEvent(entity, outcome));
+            }
+        });
+    }
+
+}
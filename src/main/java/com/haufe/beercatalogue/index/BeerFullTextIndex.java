@@ -0,0 +1,242 @@
+package com.haufe.beercatalogue.index;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.hibernate.Hibernate;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+
+import jakarta.persistence.EntityManager;
+
+@Component
+public class BeerFullTextIndex {
+
+    /* In-memory full-text index over beer names, types, descriptions and manufacturer names,
+       ranked by relevance. Loaded from the database on first use and kept current by the
+       catalogue change events, a rename of a manufacturer reindexes its beers. Holds committed
+       data only, a transaction reads its own writes through an overlay. */
+
+    // A word in the name says more about a beer than the same word in its description
+    private static final float NAME_BOOST = 3;
+    private static final float TYPE_BOOST = 2;
+    private static final float MANUFACTURER_BOOST = 1.5f;
+    private static final float DESCRIPTION_BOOST = 1;
+
+    // What a beer was indexed from, to answer with its name and to reindex it on a manufacturer rename
+    private record Source(String name, String type, String description, Long manufacturerId) {}
+
+    private final BeerRepository beerRepository;
+    private final ManufacturerRepository manufacturerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate committedReads;
+
+    private final FullTextIndex index = new FullTextIndex();
+    private final Map<Long, Source> beers = new HashMap<>();
+    private final Map<Long, String> manufacturerNames = new HashMap<>();
+    private final TransactionOverlay<Source> writtenBeers = new TransactionOverlay<>();
+    private final TransactionOverlay<String> writtenManufacturerNames = new TransactionOverlay<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean stale = true;
+
+    public BeerFullTextIndex(BeerRepository beerRepository, ManufacturerRepository manufacturerRepository,
+            EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.beerRepository = beerRepository;
+        this.manufacturerRepository = manufacturerRepository;
+        this.entityManager = entityManager;
+
+        // Reloads read what is committed, not the uncommitted writes of the transaction that triggers them
+        this.committedReads = new TransactionTemplate(transactionManager);
+        this.committedReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.committedReads.setReadOnly(true);
+    }
+
+    /**
+     * Returns the page of beers matching any word of the query, most relevant first.
+     */
+    public Page<BeerSummaryDTO> search(String query, Pageable pageable) {
+        refreshIfStale();
+
+        Map<Long, Source> written = writtenBeers.writes();
+        Map<Long, String> writtenNames = writtenManufacturerNames.writes();
+        lock.readLock().lock();
+        try {
+            if (written.isEmpty() && writtenNames.isEmpty())
+                return page(index.search(query, pageable.getOffset(), pageable.getPageSize()), beers, pageable);
+
+            return pageWithWrites(query, pageable, written, writtenNames);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        // A rolled back change never reached the shared index
+        if (!(event.isAbout(Beer.class) || event.isAbout(Manufacturer.class)) || event.getKind() == CatalogueChangedEvent.Kind.DISCARDED)
+            return;
+
+        if (event.isPending()) {
+            if (event.getEntity() instanceof Beer beer)
+                writtenBeers.put(beer.getId(), event.getKind() == CatalogueChangedEvent.Kind.SAVED ? source(beer) : null);
+            else if (event.getEntity() instanceof Manufacturer manufacturer)
+                writtenManufacturerNames.put(manufacturer.getId(), event.getKind() == CatalogueChangedEvent.Kind.SAVED ? manufacturer.getName() : null);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.getEntity() instanceof Beer beer)
+                onBeerChanged(beer, event.getKind());
+            else if (event.getEntity() instanceof Manufacturer manufacturer)
+                onManufacturerChanged(manufacturer, event.getKind());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the index for a reload on next use, for writes that bypassed JPA.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Reloads the whole index with the committed beers and returns how many it holds.
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            beers.clear();
+            manufacturerNames.clear();
+            // Every manufacturer, not only those with beers, so beers later saved with just a proxy of theirs get the name
+            List<BeerRepository.FullTextEntry> entries = committedReads.execute(status -> {
+                manufacturerRepository.findNameEntries().forEach(entry -> manufacturerNames.put(entry.getId(), entry.getName()));
+                return beerRepository.findFullTextEntries();
+            });
+            for (BeerRepository.FullTextEntry entry : entries)
+                put(entry.getId(), new Source(entry.getName(), entry.getType(), entry.getDescription(), entry.getManufacturerId()));
+            stale = false;
+            return index.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onBeerChanged(Beer beer, CatalogueChangedEvent.Kind kind) {
+        if (kind == CatalogueChangedEvent.Kind.REMOVED) {
+            index.remove(beer.getId());
+            beers.remove(beer.getId());
+            return;
+        }
+
+        Manufacturer manufacturer = beer.getManufacturer();
+        // The name of a manufacturer only referenced by a proxy comes from the one we already know,
+        // every manufacturer is loaded by a rebuild and followed by its own events
+        if (manufacturer != null && Hibernate.isInitialized(manufacturer))
+            manufacturerNames.put(manufacturer.getId(), manufacturer.getName());
+        put(beer.getId(), source(beer));
+    }
+
+    private void onManufacturerChanged(Manufacturer manufacturer, CatalogueChangedEvent.Kind kind) {
+        if (kind == CatalogueChangedEvent.Kind.REMOVED) {
+            manufacturerNames.remove(manufacturer.getId());
+            return;
+        }
+
+        String previous = manufacturerNames.put(manufacturer.getId(), manufacturer.getName());
+        if (previous == null || previous.equals(manufacturer.getName()))
+            return;
+
+        beers.entrySet().stream()
+            .filter(beer -> manufacturer.getId().equals(beer.getValue().manufacturerId()))
+            .toList()
+            .forEach(beer -> put(beer.getKey(), beer.getValue()));
+    }
+
+    private void put(long id, Source source) {
+        beers.put(id, source);
+        index.put(id, fields(source, source.manufacturerId() != null ? manufacturerNames.get(source.manufacturerId()) : null));
+    }
+
+    private static Source source(Beer beer) {
+        Long manufacturerId = beer.getManufacturer() != null ? beer.getManufacturer().getId() : null;
+        return new Source(beer.getName(), beer.getType(), beer.getDescription(), manufacturerId);
+    }
+
+    private static List<FullTextIndex.Field> fields(Source source, String manufacturerName) {
+        return List.of(
+            new FullTextIndex.Field(source.name(), NAME_BOOST),
+            new FullTextIndex.Field(source.type(), TYPE_BOOST),
+            new FullTextIndex.Field(manufacturerName, MANUFACTURER_BOOST),
+            new FullTextIndex.Field(source.description(), DESCRIPTION_BOOST));
+    }
+
+    // Called under the read lock, ranks the documents of the transaction with those of the shared index
+    private Page<BeerSummaryDTO> pageWithWrites(String query, Pageable pageable, Map<Long, Source> written, Map<Long, String> writtenNames) {
+        Map<Long, Source> replaced = new HashMap<>(written);
+        writtenNames.forEach((manufacturerId, name) -> {
+            // A rename changes the documents of the committed beers of the manufacturer, as it does once committed
+            String committed = manufacturerNames.get(manufacturerId);
+            if (name != null && committed != null && !committed.equals(name)) {
+                beers.forEach((id, beer) -> {
+                    if (manufacturerId.equals(beer.manufacturerId()))
+                        replaced.putIfAbsent(id, beer);
+                });
+            }
+        });
+
+        Map<Long, List<FullTextIndex.Field>> documents = new HashMap<>();
+        replaced.forEach((id, beer) -> {
+            Long manufacturerId = beer != null ? beer.manufacturerId() : null;
+            String manufacturerName = manufacturerId != null && writtenNames.containsKey(manufacturerId) ? writtenNames.get(manufacturerId) : manufacturerNames.get(manufacturerId);
+            documents.put(id, beer != null ? fields(beer, manufacturerName) : null);
+        });
+
+        FullTextIndex.Result result = index.search(query, pageable.getOffset(), pageable.getPageSize(), documents);
+        Map<Long, Source> sources = new HashMap<>();
+        result.hits().forEach(hit -> sources.put(hit.id(), replaced.containsKey(hit.id()) ? replaced.get(hit.id()) : beers.get(hit.id())));
+        return page(result, sources, pageable);
+    }
+
+    private static Page<BeerSummaryDTO> page(FullTextIndex.Result result, Map<Long, Source> sources, Pageable pageable) {
+        List<BeerSummaryDTO> content = result.hits().stream()
+            .map(hit -> new BeerSummaryDTO(hit.id(), sources.get(hit.id()).name()))
+            .toList();
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    private void refreshIfStale() {
+        // Inserts are only written (and recorded in the overlays) on flush
+        TransactionOverlay.flushWritesTo(entityManager, Beer.class, Manufacturer.class);
+
+        if (stale) {
+            lock.writeLock().lock();
+            try {
+                if (stale)
+                    rebuild();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+}
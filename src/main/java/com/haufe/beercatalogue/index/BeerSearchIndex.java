@@ -0,0 +1,235 @@
+package com.haufe.beercatalogue.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+
+import jakarta.persistence.EntityManager;
+
+@Component
+public class BeerSearchIndex {
+
+    /* In-memory trigram index over beer names and types. Resolves substring filters to
+       beer ids so list queries can seek by primary key instead of scanning with LIKE.
+       Optionally also keeps the beers sorted by abv, to answer strength browsing on its own.
+       Holds committed beers only, a transaction reads its own writes through an overlay. */
+
+    // What a transaction wrote to a beer, laid over the shared results for its own reads
+    private record Written(String name, String type, double abv) {}
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate committedReads;
+    private final int maxCandidates;
+    private final boolean abvIndexEnabled;
+
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex types = new TrigramIndex();
+    private final SortedAbvIndex abvs = new SortedAbvIndex();
+    private final TransactionOverlay<Written> overlay = new TransactionOverlay<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean stale = true;
+
+    public BeerSearchIndex(BeerRepository beerRepository, EntityManager entityManager, PlatformTransactionManager transactionManager,
+            @Value("${beercatalogue.search.max-candidates:1000}") int maxCandidates,
+            @Value("${beercatalogue.search.abv-index:true}") boolean abvIndexEnabled) {
+        this.beerRepository = beerRepository;
+        this.entityManager = entityManager;
+        this.maxCandidates = maxCandidates;
+        this.abvIndexEnabled = abvIndexEnabled;
+
+        // Reloads read what is committed, not the uncommitted writes of the transaction that triggers them
+        this.committedReads = new TransactionTemplate(transactionManager);
+        this.committedReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.committedReads.setReadOnly(true);
+    }
+
+    /**
+     * Returns the ids of the beers whose name contains the given text, or empty if the index
+     * can't help (text shorter than a trigram or too many matches for an id lookup).
+     */
+    public Optional<Set<Long>> findByName(String name) {
+        return find(names, Written::name, name);
+    }
+
+    /**
+     * Same as findByName, for the beer type.
+     */
+    public Optional<Set<Long>> findByType(String type) {
+        return find(types, Written::type, type);
+    }
+
+    /**
+     * Returns the page of beers with an abv within the bounds (a null bound is open), or empty if
+     * the abv index is disabled or the page isn't sorted by abv alone. Ties are ordered by id.
+     */
+    public Optional<Page<BeerSummaryDTO>> findByAbv(Double min, Double max, Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor("abv");
+        if (!abvIndexEnabled || order == null || pageable.getSort().stream().count() != 1)
+            return Optional.empty();
+
+        refreshIfStale();
+
+        Map<Long, SortedAbvIndex.Entry> written = new HashMap<>();
+        overlay.writes().forEach((id, beer) -> written.put(id, beer != null ? new SortedAbvIndex.Entry(id, beer.abv(), beer.name()) : null));
+        lock.readLock().lock();
+        if (abvs.hasPendingWrites()) {
+            // Reads don't compact, merge under the write lock and downgrade so no write slips in before the read
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                abvs.compact();
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        try {
+            return Optional.of(abvPage(min, max, order, pageable, written));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        // A rolled back change never reached the shared index
+        if (!event.isAbout(Beer.class) || event.getKind() == CatalogueChangedEvent.Kind.DISCARDED)
+            return;
+
+        Beer beer = (Beer) event.getEntity();
+        if (event.isPending()) {
+            if (event.getKind() == CatalogueChangedEvent.Kind.SAVED)
+                overlay.put(beer.getId(), new Written(beer.getName(), beer.getType(), beer.getAbv()));
+            else
+                overlay.remove(beer.getId());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.getKind() == CatalogueChangedEvent.Kind.SAVED) {
+                names.put(beer.getId(), beer.getName());
+                types.put(beer.getId(), beer.getType());
+                if (abvIndexEnabled)
+                    abvs.put(beer.getId(), beer.getAbv(), beer.getName());
+            } else {
+                names.remove(beer.getId());
+                types.remove(beer.getId());
+                if (abvIndexEnabled)
+                    abvs.remove(beer.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the index for a reload on next use, for writes that bypassed JPA.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Reloads the whole index with the committed beers.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            types.clear();
+            List<SortedAbvIndex.Entry> strengths = new ArrayList<>();
+            for (BeerRepository.IndexEntry entry : committedReads.execute(status -> beerRepository.findIndexEntries())) {
+                names.put(entry.getId(), entry.getName());
+                types.put(entry.getId(), entry.getType());
+                if (abvIndexEnabled)
+                    strengths.add(new SortedAbvIndex.Entry(entry.getId(), entry.getAbv(), entry.getName()));
+            }
+            abvs.load(strengths);
+            stale = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Page<BeerSummaryDTO> abvPage(Double min, Double max, Sort.Order order, Pageable pageable, Map<Long, SortedAbvIndex.Entry> written) {
+        List<BeerSummaryDTO> content = abvs.range(min, max, order.isDescending(), pageable.getOffset(), pageable.getPageSize(), written)
+            .stream()
+            .map(entry -> new BeerSummaryDTO(entry.id(), entry.name()))
+            .toList();
+        return new PageImpl<>(content, pageable, abvs.count(min, max, written));
+    }
+
+    private Optional<Set<Long>> find(TrigramIndex index, Function<Written, String> field, String query) {
+        if (!TrigramIndex.canResolve(query))
+            return Optional.empty();
+
+        refreshIfStale();
+
+        Set<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Written> written = overlay.writes();
+        if (written.isEmpty())
+            return candidates(ids);
+
+        // The transaction's own writes replace what the shared index holds for the same beers
+        Set<Long> merged = new HashSet<>(ids);
+        written.forEach((id, beer) -> {
+            if (beer != null && TrigramIndex.matches(field.apply(beer), query))
+                merged.add(id);
+            else
+                merged.remove(id);
+        });
+        return candidates(merged);
+    }
+
+    private Optional<Set<Long>> candidates(Set<Long> ids) {
+        return ids.size() > maxCandidates ? Optional.empty() : Optional.of(ids);
+    }
+
+    private void refreshIfStale() {
+        // Beer inserts are only written (and recorded in the overlay) on flush
+        TransactionOverlay.flushWritesTo(entityManager, Beer.class);
+
+        if (stale) {
+            lock.writeLock().lock();
+            try {
+                if (stale)
+                    rebuild();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.haufe.beercatalogue.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class FullTextIndex {
+
+    /* Inverted index from words to the documents containing them, ranked with BM25. A document is
+       made of weighted fields, a word in a field counts as many times as the field's boost, so a
+       match in a name can outrank one in a long description. Any query word matches, documents
+       with more and rarer words rank first. Not thread-safe, callers are expected to guard access. */
+
+    public record Field(String text, float boost) {}
+
+    public record Hit(long id, double score) {}
+
+    public record Result(int total, List<Hit> hits) {}
+
+    private record Document(Set<String> terms, float length) {}
+
+    // Usual BM25 parameters: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Best first, ties broken by id so pages are stable
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id);
+
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    /**
+     * Splits text into lowercase words without accents, "Märzen-Bier" gives "marzen" and "bier".
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank())
+            return List.of();
+
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARATORS.split(folded.toLowerCase(Locale.ROOT)))
+            .filter(word -> !word.isEmpty())
+            .toList();
+    }
+
+    public void put(long id, List<Field> fields) {
+        remove(id);
+
+        Map<String, Float> frequencies = frequencies(fields);
+        float length = length(frequencies);
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+        documents.put(id, new Document(frequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    public void remove(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null)
+            return;
+
+        totalLength -= previous.length();
+        for (String term : previous.terms()) {
+            Map<Long, Float> ids = postings.get(term);
+            if (ids != null && ids.remove(id) != null && ids.isEmpty())
+                postings.remove(term);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        documents.clear();
+        totalLength = 0;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Returns how many documents match the query and, best first, the hits skipping the first offset
+     * of them and at most limit. Only the hits up to the requested page are sorted.
+     */
+    public Result search(String query, long offset, int limit) {
+        return search(query, offset, limit, Map.of());
+    }
+
+    /**
+     * Same as search, with the given documents taking the place of the indexed ones of the same ids,
+     * null removing them. They are ranked with the statistics of the index, which they don't change.
+     */
+    public Result search(String query, long offset, int limit, Map<Long, List<Field>> replaced) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty())
+            return new Result(0, List.of());
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Float> ids = postings.get(term);
+            if (ids == null)
+                continue;
+
+            double idf = idf(ids.size());
+            ids.forEach((id, frequency) -> {
+                if (!replaced.containsKey(id))
+                    scores.merge(id, idf * saturation(frequency, documents.get(id).length()), Double::sum);
+            });
+        }
+        replaced.forEach((id, fields) -> {
+            if (fields == null)
+                return;
+
+            Map<String, Float> frequencies = frequencies(fields);
+            float length = length(frequencies);
+            for (String term : terms) {
+                Float frequency = frequencies.get(term);
+                if (frequency != null)
+                    scores.merge(id, idf(postings.getOrDefault(term, Map.of()).size()) * saturation(frequency, length), Double::sum);
+            }
+        });
+
+        if (offset >= scores.size())
+            return new Result(scores.size(), List.of());
+
+        // Keep the best offset + limit hits, with the worst of them on top to be replaced
+        int keep = (int) Math.min(scores.size(), offset + limit);
+        PriorityQueue<Hit> best = new PriorityQueue<>(keep, RANKING.reversed());
+        scores.forEach((id, score) -> {
+            best.add(new Hit(id, score));
+            if (best.size() > keep)
+                best.poll();
+        });
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return new Result(scores.size(), hits.subList((int) offset, hits.size()));
+    }
+
+    private double idf(int matching) {
+        return Math.log(1 + (documents.size() - matching + 0.5) / (matching + 0.5));
+    }
+
+    // The share of a term's weight a document gets from its frequency there, shorter documents get more
+    private double saturation(float frequency, float length) {
+        double averageLength = documents.isEmpty() ? 0 : totalLength / documents.size();
+        double norm = K1 * (1 - B + B * (averageLength > 0 ? length / averageLength : 1));
+        return frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    // How many times each word occurs, a word in a field counting as many times as its boost
+    private static Map<String, Float> frequencies(List<Field> fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        for (Field field : fields) {
+            for (String term : tokenize(field.text()))
+                frequencies.merge(term, field.boost(), Float::sum);
+        }
+        return frequencies;
+    }
+
+    private static float length(Map<String, Float> frequencies) {
+        float length = 0;
+        for (float frequency : frequencies.values())
+            length += frequency;
+        return length;
+    }
+
+}
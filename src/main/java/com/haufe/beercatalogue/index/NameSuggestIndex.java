@@ -0,0 +1,142 @@
+package com.haufe.beercatalogue.index;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.dto.SuggestionDTO;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
+
+import jakarta.persistence.EntityManager;
+
+public class NameSuggestIndex<E> {
+
+    /* Typeahead over the names of one catalogue entity type, answered from a prefix index in
+       memory. Loaded from the database on first use and kept current by the catalogue change
+       events, so a keystroke costs neither a query nor a count. Holds committed names only, a
+       transaction reads its own writes through an overlay. */
+
+    /**
+     * Most names a single suggestion request may ask for.
+     */
+    public static final int MAX_LIMIT = 50;
+
+    private final Class<E> entityType;
+    private final Function<E, Long> idOf;
+    private final Function<E, String> nameOf;
+    private final Supplier<Map<Long, String>> loader;
+    private final EntityManager entityManager;
+    private final TransactionTemplate committedReads;
+
+    private final PrefixIndex names = new PrefixIndex();
+    private final TransactionOverlay<String> overlay = new TransactionOverlay<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean stale = true;
+
+    public NameSuggestIndex(Class<E> entityType, Function<E, Long> idOf, Function<E, String> nameOf,
+            Supplier<Map<Long, String>> loader, EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityType = entityType;
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.loader = loader;
+        this.entityManager = entityManager;
+
+        // Reloads read what is committed, not the uncommitted writes of the transaction that triggers them
+        this.committedReads = new TransactionTemplate(transactionManager);
+        this.committedReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.committedReads.setReadOnly(true);
+    }
+
+    /**
+     * Returns at most limit names with a word starting with the prefix, ignoring case and accents.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        refreshIfStale();
+
+        Map<Long, String> written = overlay.writes();
+        List<PrefixIndex.Entry> entries;
+        lock.readLock().lock();
+        if (names.hasPendingWrites()) {
+            // Reads don't compact, merge under the write lock and downgrade so no write slips in before the read
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                names.compact();
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        try {
+            // Enough shared names to fill the limit even if the transaction wrote over some of them
+            entries = names.suggest(prefix, limit + written.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!written.isEmpty())
+            entries = PrefixIndex.withWrites(entries, written, prefix, limit);
+        return entries.stream()
+            .map(entry -> new SuggestionDTO(entry.id(), entry.name()))
+            .toList();
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        // A rolled back change never reached the shared index
+        if (!event.isAbout(entityType) || event.getKind() == CatalogueChangedEvent.Kind.DISCARDED)
+            return;
+
+        E entity = entityType.cast(event.getEntity());
+        if (event.isPending()) {
+            if (event.getKind() == CatalogueChangedEvent.Kind.SAVED)
+                overlay.put(idOf.apply(entity), nameOf.apply(entity));
+            else
+                overlay.remove(idOf.apply(entity));
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.getKind() == CatalogueChangedEvent.Kind.SAVED)
+                names.put(idOf.apply(entity), nameOf.apply(entity));
+            else
+                names.remove(idOf.apply(entity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the index for a reload on next use, for writes that bypassed JPA.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private void refreshIfStale() {
+        // Inserts are only written (and recorded in the overlay) on flush
+        TransactionOverlay.flushWritesTo(entityManager, entityType);
+
+        if (stale) {
+            lock.writeLock().lock();
+            try {
+                if (stale) {
+                    names.load(committedReads.execute(status -> loader.get()));
+                    stale = false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+}
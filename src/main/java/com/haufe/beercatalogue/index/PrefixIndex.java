@@ -0,0 +1,229 @@
+package com.haufe.beercatalogue.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class PrefixIndex {
+
+    /* Names in normalized form kept sorted in parallel arrays, so the names starting with a prefix
+       are found with a binary search and read in order. Every word of a name starts a key of its
+       own, "Punk IPA" is found by "pu" as well as by "ip". Writes are buffered and merged in a single
+       pass by compact. Reads never mutate and only see compacted writes, so concurrent readers are
+       safe once the writer has compacted. Not thread-safe otherwise, callers are expected to guard
+       access. */
+
+    public record Entry(long id, String name) {}
+
+    private record Key(String key, long id) {}
+
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::key).thenComparingLong(Key::id);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private String[] keys = new String[0];
+    private long[] ids = new long[0];
+    private int size;
+    private final Map<Long, String> names = new HashMap<>();
+
+    // Written names by id, null for removed ones
+    private final Map<Long, String> pending = new HashMap<>();
+
+    /**
+     * Lowercases the text and drops accents and repeated spaces, "  Märzen  Bier" gives "marzen bier".
+     */
+    public static String normalize(String text) {
+        if (text == null)
+            return "";
+
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(folded.strip().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    public void put(long id, String name) {
+        pending.put(id, name);
+    }
+
+    public void remove(long id) {
+        pending.put(id, null);
+    }
+
+    /**
+     * Replaces the content with the given names by id.
+     */
+    public void load(Map<Long, String> all) {
+        pending.clear();
+        names.clear();
+        List<Key> sorted = new ArrayList<>();
+        all.forEach((id, name) -> {
+            if (name != null) {
+                names.put(id, name);
+                addKeys(sorted, id, name);
+            }
+        });
+        sorted.sort(ORDER);
+
+        keys = new String[sorted.size()];
+        ids = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            keys[i] = sorted.get(i).key();
+            ids[i] = sorted.get(i).id();
+        }
+        size = sorted.size();
+    }
+
+    public void clear() {
+        load(Map.of());
+    }
+
+    public boolean hasPendingWrites() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Merges the pending writes into the sorted arrays.
+     */
+    public void compact() {
+        if (pending.isEmpty())
+            return;
+
+        long[] written = pending.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        List<Key> added = new ArrayList<>();
+        pending.forEach((id, name) -> {
+            if (name == null) {
+                names.remove(id);
+            } else {
+                names.put(id, name);
+                addKeys(added, id, name);
+            }
+        });
+        added.sort(ORDER);
+        pending.clear();
+
+        String[] mergedKeys = new String[size + added.size()];
+        long[] mergedIds = new long[mergedKeys.length];
+        int merged = 0, next = 0;
+        for (int i = 0; i < size; i++) {
+            // Keys of written names are dropped here and come back from added if the name is still there
+            if (Arrays.binarySearch(written, ids[i]) >= 0)
+                continue;
+
+            while (next < added.size() && ORDER.compare(added.get(next), new Key(keys[i], ids[i])) < 0) {
+                Key key = added.get(next++);
+                mergedKeys[merged] = key.key();
+                mergedIds[merged++] = key.id();
+            }
+            mergedKeys[merged] = keys[i];
+            mergedIds[merged++] = ids[i];
+        }
+        while (next < added.size()) {
+            Key key = added.get(next++);
+            mergedKeys[merged] = key.key();
+            mergedIds[merged++] = key.id();
+        }
+
+        keys = mergedKeys;
+        ids = mergedIds;
+        size = merged;
+    }
+
+    /**
+     * Returns how many names are indexed, without the pending writes.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Returns at most limit names with a word starting with the prefix, in the order of the matching
+     * words. A name matching with several words is returned once.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty())
+            return List.of();
+
+        List<Entry> entries = new ArrayList<>(Math.min(limit, 16));
+        Set<Long> seen = new HashSet<>();
+        for (int i = lowerBound(normalized); i < size && entries.size() < limit && keys[i].startsWith(normalized); i++) {
+            if (seen.add(ids[i]))
+                entries.add(new Entry(ids[i], names.get(ids[i])));
+        }
+        return entries;
+    }
+
+    /**
+     * Lays written names (null for removed ones) over suggestions of an index, in the same order and
+     * limit. The suggestions must be the first limit + written.size() of the index, as the written
+     * names may take the place of that many of them.
+     */
+    public static List<Entry> withWrites(List<Entry> suggestions, Map<Long, String> written, String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty())
+            return List.of();
+
+        List<Key> order = new ArrayList<>();
+        Map<Long, String> merged = new HashMap<>();
+        for (Entry entry : suggestions) {
+            if (!written.containsKey(entry.id())) {
+                merged.put(entry.id(), entry.name());
+                order.add(firstKey(entry.id(), entry.name(), normalized));
+            }
+        }
+        written.forEach((id, name) -> {
+            Key key = name != null ? firstKey(id, name, normalized) : null;
+            if (key != null) {
+                merged.put(id, name);
+                order.add(key);
+            }
+        });
+        order.sort(ORDER);
+
+        return order.stream()
+            .limit(limit)
+            .map(key -> new Entry(key.id(), merged.get(key.id())))
+            .toList();
+    }
+
+    // The first key of a name starting with the prefix, where suggest meets it, or null if none does
+    private static Key firstKey(long id, String name, String prefix) {
+        List<Key> keys = new ArrayList<>();
+        addKeys(keys, id, name);
+        return keys.stream()
+            .filter(key -> key.key().startsWith(prefix))
+            .min(ORDER)
+            .orElse(null);
+    }
+
+    // The whole name and every part of it starting at a word
+    private static void addKeys(List<Key> keys, long id, String name) {
+        String normalized = normalize(name);
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ')
+                keys.add(new Key(normalized.substring(i), id));
+        }
+    }
+
+    // First position with a key not below the prefix
+    private int lowerBound(String prefix) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+}
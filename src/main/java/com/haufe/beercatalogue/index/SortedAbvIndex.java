@@ -0,0 +1,235 @@
+package com.haufe.beercatalogue.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class SortedAbvIndex {
+
+    /* Beers ordered by abv and then id, kept in parallel primitive arrays so a range is found with
+       two binary searches and read without boxing. Names are kept alongside to answer list pages
+       without the database. Writes are buffered and merged in a single pass by compact, so a bulk
+       import doesn't shift the arrays once per beer. Reads never mutate and only see compacted
+       writes, so concurrent readers are safe once the writer has compacted. Not thread-safe
+       otherwise, callers are expected to guard access. */
+
+    public record Entry(long id, double abv, String name) {}
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::abv).thenComparingLong(Entry::id);
+
+    private double[] abvs = new double[0];
+    private long[] ids = new long[0];
+    private String[] names = new String[0];
+    private int size;
+
+    // The abv of every compacted beer, to find where a beer written over sits
+    private final Map<Long, Double> abvById = new HashMap<>();
+
+    // Written beers by id, null for removed ones
+    private final Map<Long, Entry> pending = new HashMap<>();
+
+    public void put(long id, double abv, String name) {
+        pending.put(id, new Entry(id, abv, name));
+    }
+
+    public void remove(long id) {
+        pending.put(id, null);
+    }
+
+    /**
+     * Replaces the content with the given entries, in any order.
+     */
+    public void load(List<Entry> entries) {
+        pending.clear();
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(ORDER);
+        fill(sorted.size(), sorted);
+    }
+
+    public void clear() {
+        pending.clear();
+        fill(0, List.of());
+    }
+
+    public boolean hasPendingWrites() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Merges the pending writes into the sorted arrays.
+     */
+    public void compact() {
+        if (pending.isEmpty())
+            return;
+
+        long[] written = pending.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        List<Entry> added = pending.values().stream().filter(Objects::nonNull).sorted(ORDER).toList();
+        pending.keySet().forEach(abvById::remove);
+        pending.clear();
+        added.forEach(entry -> abvById.put(entry.id(), entry.abv()));
+
+        double[] mergedAbvs = new double[size + added.size()];
+        long[] mergedIds = new long[mergedAbvs.length];
+        String[] mergedNames = new String[mergedAbvs.length];
+        int merged = 0, next = 0;
+        for (int i = 0; i < size; i++) {
+            // Written beers are dropped here and come back from added at their new position
+            if (Arrays.binarySearch(written, ids[i]) >= 0)
+                continue;
+
+            while (next < added.size() && precedes(added.get(next), abvs[i], ids[i])) {
+                Entry entry = added.get(next++);
+                mergedAbvs[merged] = entry.abv();
+                mergedIds[merged] = entry.id();
+                mergedNames[merged++] = entry.name();
+            }
+            mergedAbvs[merged] = abvs[i];
+            mergedIds[merged] = ids[i];
+            mergedNames[merged++] = names[i];
+        }
+        while (next < added.size()) {
+            Entry entry = added.get(next++);
+            mergedAbvs[merged] = entry.abv();
+            mergedIds[merged] = entry.id();
+            mergedNames[merged++] = entry.name();
+        }
+
+        abvs = mergedAbvs;
+        ids = mergedIds;
+        names = mergedNames;
+        size = merged;
+    }
+
+    /**
+     * Returns how many beers are indexed, without the pending writes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns how many beers have an abv within the bounds, both inclusive. A null bound is open.
+     */
+    public int count(Double min, Double max) {
+        return Math.max(0, upperBound(max) - lowerBound(min));
+    }
+
+    /**
+     * Returns the beers with an abv within the bounds, skipping the first offset of them and returning
+     * at most limit. They are ordered by abv and then id, both descending if requested.
+     */
+    public List<Entry> range(Double min, Double max, boolean descending, long offset, int limit) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        if (offset >= to - from)
+            return List.of();
+
+        int count = (int) Math.min(limit, to - from - offset);
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int at = descending ? to - 1 - (int) offset - i : from + (int) offset + i;
+            entries.add(new Entry(ids[at], abvs[at], names[at]));
+        }
+        return entries;
+    }
+
+    /**
+     * Same as count, with written entries (null for removed ones) taking the place of the indexed
+     * ones of the same ids.
+     */
+    public int count(Double min, Double max, Map<Long, Entry> written) {
+        int count = count(min, max);
+        for (Map.Entry<Long, Entry> write : written.entrySet()) {
+            Double indexed = abvById.get(write.getKey());
+            if (indexed != null && within(indexed, min, max))
+                count--;
+            if (write.getValue() != null && within(write.getValue().abv(), min, max))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Same as range, with written entries (null for removed ones) taking the place of the indexed
+     * ones of the same ids. Reads the indexed entries from the start of the range up to the page.
+     */
+    public List<Entry> range(Double min, Double max, boolean descending, long offset, int limit, Map<Long, Entry> written) {
+        if (written.isEmpty())
+            return range(min, max, descending, offset, limit);
+
+        // The written entries may take the place of as many indexed ones up to the end of the page
+        List<Entry> merged = new ArrayList<>();
+        for (Entry entry : range(min, max, descending, 0, (int) Math.min(Integer.MAX_VALUE, offset + limit + written.size()))) {
+            if (!written.containsKey(entry.id()))
+                merged.add(entry);
+        }
+        written.values().stream()
+            .filter(entry -> entry != null && within(entry.abv(), min, max))
+            .forEach(merged::add);
+        merged.sort(descending ? ORDER.reversed() : ORDER);
+
+        int from = (int) Math.min(offset, merged.size());
+        return List.copyOf(merged.subList(from, (int) Math.min(offset + limit, merged.size())));
+    }
+
+    private void fill(int count, List<Entry> sorted) {
+        abvById.clear();
+        abvs = new double[count];
+        ids = new long[count];
+        names = new String[count];
+        for (int i = 0; i < count; i++) {
+            Entry entry = sorted.get(i);
+            abvs[i] = entry.abv();
+            ids[i] = entry.id();
+            names[i] = entry.name();
+            abvById.put(entry.id(), entry.abv());
+        }
+        size = count;
+    }
+
+    private static boolean precedes(Entry entry, double abv, long id) {
+        int order = Double.compare(entry.abv(), abv);
+        return order < 0 || (order == 0 && entry.id() < id);
+    }
+
+    private static boolean within(double abv, Double min, Double max) {
+        return (min == null || Double.compare(abv, min) >= 0) && (max == null || Double.compare(abv, max) <= 0);
+    }
+
+    // First position with an abv not below min
+    private int lowerBound(Double min) {
+        if (min == null)
+            return 0;
+
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(abvs[mid], min) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    // First position with an abv above max
+    private int upperBound(Double max) {
+        if (max == null)
+            return size;
+
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(abvs[mid], max) <= 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.haufe.beercatalogue.index;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+
+public class TransactionOverlay<V> {
+
+    /* Uncommitted writes of the current transaction to an in-memory index. The shared index only
+       applies committed changes, so other requests never read dirty data and a rollback has nothing
+       to undo. The overlay keeps the latest written value of each id, null for removed ones, and
+       the index lays them over its shared results at query time. A transaction costs the size of
+       its own writes, never a copy of the index. */
+
+    /**
+     * Flushes the pending writes of the current transaction to the tables of the given entities, as
+     * a query on them would, so they are recorded before the index is read. Writes to other tables
+     * stay pending, and read-only transactions have nothing to flush.
+     */
+    public static void flushWritesTo(EntityManager entityManager, Class<?>... entityTypes) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return;
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Set<String> tables = new HashSet<>();
+        for (Class<?> entityType : entityTypes) {
+            for (Serializable table : session.getFactory().getMappingMetamodel().getEntityDescriptor(entityType).getQuerySpaces())
+                tables.add((String) table);
+        }
+        session.autoFlushIfRequired(tables);
+    }
+
+    /**
+     * Keeps the written value of an id for the reads of the current transaction, dropped when it
+     * completes. The value must not change afterwards, entities are to be copied.
+     */
+    public void put(long id, V value) {
+        Map<Long, V> writes = bind();
+        if (writes != null)
+            writes.put(id, value);
+    }
+
+    /**
+     * Same as put, for an id removed by the current transaction.
+     */
+    public void remove(long id) {
+        put(id, null);
+    }
+
+    /**
+     * Returns the latest written value of each id in the current transaction, null for removed ids.
+     * Empty when it has written nothing and the shared results are to be read as they are.
+     */
+    public Map<Long, V> writes() {
+        Map<Long, V> writes = current();
+        return writes == null ? Map.of() : Collections.unmodifiableMap(writes);
+    }
+
+    private Map<Long, V> bind() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return null;
+
+        Map<Long, V> writes = current();
+        if (writes == null) {
+            Map<Long, V> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // A transaction suspended for a new one keeps its writes to itself
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(TransactionOverlay.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(TransactionOverlay.this, bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionOverlay.this);
+                }
+            });
+            writes = bound;
+        }
+        return writes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, V> current() {
+        return (Map<Long, V>) TransactionSynchronizationManager.getResource(this);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.haufe.beercatalogue.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class TrigramIndex {
+
+    /* Inverted index from 3-character substrings to the ids of the values containing them.
+       Not thread-safe, callers are expected to guard access. */
+
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String> values = new HashMap<>();
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks if a substring query is long enough to be answered by the index.
+     */
+    public static boolean canResolve(String query) {
+        return normalize(query).length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Checks if the text contains the query (case-insensitive), as search does for indexed values.
+     */
+    public static boolean matches(String text, String query) {
+        return normalize(text).contains(normalize(query));
+    }
+
+    public void put(Long id, String text) {
+        remove(id);
+        String value = normalize(text);
+        values.put(id, value);
+        for (String gram : grams(value))
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+    }
+
+    public void remove(Long id) {
+        String previous = values.remove(id);
+        if (previous == null)
+            return;
+
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty())
+                postings.remove(gram);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        values.clear();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the ids of every value containing the query (case-insensitive).
+     * The query must satisfy canResolve.
+     */
+    public Set<Long> search(String query) {
+        String needle = normalize(query);
+        if (needle.length() < GRAM_LENGTH)
+            throw new IllegalArgumentException("Query must be at least " + GRAM_LENGTH + " characters long");
+
+        // Intersect posting lists starting with the most selective one
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null)
+                return Collections.emptySet();
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        // Trigrams only give candidates, confirm each one against the stored value
+        Set<Long> result = new HashSet<>();
+        for (Long id : lists.get(0)) {
+            if (containedInAll(id, lists) && values.get(id).contains(needle))
+                result.add(id);
+        }
+        return result;
+    }
+
+    private static boolean containedInAll(Long id, List<Set<Long>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id))
+                return false;
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++)
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        return grams;
+    }
+
+}
@@ -16,10 +16,13 @@ public class BeerMapper {
     }
   
     public BeerDetailDTO toDetail(Beer beer) {
-        return new BeerDetailDTO(beer.getId(), beer.getName(),
+        BeerDetailDTO dto = new BeerDetailDTO(beer.getId(), beer.getName(),
             beer.getAbv(), beer.getType(),
             beer.getDescription(),
             beer.getManufacturer().getId());
+        dto.setVersion(beer.getVersion());
+        dto.setLastModified(beer.getLastModified());
+        return dto;
     }
 
     public Beer toEntity(BeerCreateDTO dto, Manufacturer manufacturer) {
@@ -11,6 +11,8 @@ public class ManufacturerMapper {
 
     public ManufacturerDetailDTO toDetail(Manufacturer manufacturer) {
         ManufacturerDetailDTO dto = new ManufacturerDetailDTO(manufacturer.getId(), manufacturer.getName(), manufacturer.getCountry());
+        dto.setVersion(manufacturer.getVersion());
+        dto.setLastModified(manufacturer.getLastModified());
         return dto;
     }
 
@@ -1,12 +1,19 @@
 package com.haufe.beercatalogue.model;
 
+import java.time.Instant;
+
 import jakarta.persistence.*;
 
+import com.haufe.beercatalogue.event.CatalogueEntityListener;
+
 @Entity
+@EntityListeners(CatalogueEntityListener.class)
 public class Beer {
 
+    // Pooled sequence so ids are assigned without an insert and Hibernate can batch them
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_seq")
+    @SequenceGenerator(name = "beer_seq", sequenceName = "beer_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -15,13 +22,27 @@ public class Beer {
 
     private String type;
 
+    // Lowercase copies generated by the database for case-insensitive matching. Only read by queries
+    @Column(insertable = false, updatable = false)
+    private String nameLower;
+
+    @Column(insertable = false, updatable = false)
+    private String typeLower;
+
     @Column(length = 1000)
     private String description;
 
-    @ManyToOne
+    // Lazy so only the FK is read, getManufacturer().getId() doesn't initialize the proxy
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manufacturer_id")
     private Manufacturer manufacturer;
 
+    // Bumped by every update, it is the ETag of the entity
+    @Version
+    private Long version;
+
+    private Instant lastModified;
+
     public Beer() {
 
     }
@@ -82,5 +103,19 @@ public class Beer {
     public void setManufacturer(Manufacturer manufacturer) {
         this.manufacturer = manufacturer;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
     
 }
\ No newline at end of file
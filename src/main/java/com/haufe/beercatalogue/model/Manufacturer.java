@@ -1,8 +1,13 @@
 package com.haufe.beercatalogue.model;
 
+import java.time.Instant;
+
 import jakarta.persistence.*;
 
+import com.haufe.beercatalogue.event.CatalogueEntityListener;
+
 @Entity
+@EntityListeners(CatalogueEntityListener.class)
 public class Manufacturer {
 
     @Id
@@ -13,6 +18,12 @@ public class Manufacturer {
 
     private String country;
 
+    // Bumped by every update, it is the ETag of the entity
+    @Version
+    private Long version;
+
+    private Instant lastModified;
+
     public Manufacturer() {}
 
     public Manufacturer(long id, String name, String country) {
@@ -49,4 +60,18 @@ public class Manufacturer {
     public void setCountry(String country) {
         this.country = country;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
 }
@@ -2,8 +2,11 @@ package com.haufe.beercatalogue.model;
 
 import jakarta.persistence.*;
 
+import com.haufe.beercatalogue.event.CatalogueEntityListener;
+
 @Entity
 @Table(name = "app_user")
+@EntityListeners(CatalogueEntityListener.class)
 public class User {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,7 +17,7 @@ public class User {
 
     private String role; 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manufacturer_id")
     private Manufacturer manufacturer;
 
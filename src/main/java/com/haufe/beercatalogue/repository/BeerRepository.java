@@ -1,9 +1,42 @@
 package com.haufe.beercatalogue.repository;
 
 import com.haufe.beercatalogue.model.Beer;
+
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BeerRepository extends JpaRepository<Beer, Long>, JpaSpecificationExecutor<Beer>, BeerRepositoryCustom {
+
+    interface IndexEntry {
+        Long getId();
+        String getName();
+        String getType();
+        Double getAbv();
+    }
+
+    @Query("select b.id as id, b.name as name, b.type as type, b.abv as abv from Beer b")
+    List<IndexEntry> findIndexEntries();
+
+    interface FullTextEntry {
+        Long getId();
+        String getName();
+        String getType();
+        String getDescription();
+        Long getManufacturerId();
+    }
+
+    @Query("select b.id as id, b.name as name, b.type as type, b.description as description, b.manufacturer.id as manufacturerId from Beer b")
+    List<FullTextEntry> findFullTextEntries();
+
+    @Query("select b.manufacturer.id from Beer b where b.id = :id")
+    Optional<Long> findManufacturerIdById(@Param("id") Long id);
+
+    @Query("select b.version as version, b.lastModified as lastModified from Beer b where b.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 
-public interface BeerRepository extends JpaRepository<Beer, Long>, JpaSpecificationExecutor<Beer> {
-    
-}
\ No newline at end of file
+}
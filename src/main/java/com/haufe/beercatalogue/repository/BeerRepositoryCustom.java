@@ -0,0 +1,44 @@
+package com.haufe.beercatalogue.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.haufe.beercatalogue.dto.BeerDetailDTO;
+import com.haufe.beercatalogue.dto.BeerFacetsDTO;
+import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.model.Beer;
+
+public interface BeerRepositoryCustom {
+
+    record KeysetEntry(Long id, String name, Object sortValue) {}
+
+    /**
+     * Fetches a page of beer summaries selecting only the summary columns, without
+     * loading Beer entities into the persistence context and without counting.
+     */
+    Slice<BeerSummaryDTO> findSummaries(Specification<Beer> spec, Pageable pageable);
+
+    /**
+     * Fetches at most limit beer summaries in the given order, each with the value of the first
+     * sort property to seek from, selecting only those columns.
+     */
+    List<KeysetEntry> findKeysetSummaries(Specification<Beer> spec, Sort sort, int limit);
+
+    /**
+     * Streams the details of every matching beer, reading the rows in chunks of the
+     * configured fetch size. Must be consumed and closed inside a transaction.
+     */
+    Stream<BeerDetailDTO> streamDetails(Specification<Beer> spec, Sort sort);
+
+    /**
+     * Counts the matching beers per type, per manufacturer and per abv bucket of the configured
+     * width, all with a single grouped query.
+     */
+    BeerFacetsDTO countFacets(Specification<Beer> spec);
+
+}
@@ -0,0 +1,172 @@
+package com.haufe.beercatalogue.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
+
+import com.haufe.beercatalogue.dto.AbvBucketDTO;
+import com.haufe.beercatalogue.dto.BeerDetailDTO;
+import com.haufe.beercatalogue.dto.BeerFacetsDTO;
+import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.repository.specification.BeerSpecifications;
+
+public class BeerRepositoryImpl implements BeerRepositoryCustom {
+
+    /* Custom queries for beers that can't be expressed as derived or annotated queries */
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${beercatalogue.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${beercatalogue.facets.abv-bucket-width:1.0}")
+    private double abvBucketWidth;
+
+    @Override
+    public Slice<BeerSummaryDTO> findSummaries(Specification<Beer> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerSummaryDTO> query = cb.createQuery(BeerSummaryDTO.class);
+        Root<Beer> root = query.from(Beer.class);
+
+        query.select(cb.construct(BeerSummaryDTO.class, root.get("id"), root.get("name")));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null)
+                query.where(predicate);
+        }
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<BeerSummaryDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged())
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+
+        // Fetch one extra row to know whether there is a next page
+        List<BeerSummaryDTO> content = typedQuery
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public List<KeysetEntry> findKeysetSummaries(Specification<Beer> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Beer> root = query.from(Beer.class);
+
+        String property = sort.stream().findFirst().map(Sort.Order::getProperty).orElse("id");
+        query.multiselect(root.get("id"), root.get("name"), BeerSpecifications.resolve(root, property));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null)
+                query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList()
+            .stream()
+            .map(row -> new KeysetEntry(row.get(0, Long.class), row.get(1, String.class), row.get(2)))
+            .toList();
+    }
+
+    @Override
+    public Stream<BeerDetailDTO> streamDetails(Specification<Beer> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDetailDTO> query = cb.createQuery(BeerDetailDTO.class);
+        Root<Beer> root = query.from(Beer.class);
+
+        // Constructor results aren't managed, so the persistence context doesn't grow while streaming
+        query.select(cb.construct(BeerDetailDTO.class, root.get("id"), root.get("name"), root.get("abv"),
+            root.get("type"), root.get("description"), BeerSpecifications.resolve(root, "manufacturer.id")));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null)
+                query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+            .setHint(AvailableHints.HINT_FETCH_SIZE, exportFetchSize)
+            .setHint(AvailableHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    @Override
+    public BeerFacetsDTO countFacets(Specification<Beer> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Beer> root = query.from(Beer.class);
+
+        // One row per combination of the three facets, each facet is the sum over the other two
+        Path<String> type = root.get("type");
+        Path<?> manufacturerId = BeerSpecifications.resolve(root, "manufacturer.id");
+        Expression<Integer> bucket = cb.function("floor", Integer.class, cb.quot(root.<Double>get("abv"), cb.literal(abvBucketWidth)));
+        query.multiselect(type, manufacturerId, bucket, cb.count(root)).groupBy(type, manufacturerId, bucket);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null)
+                query.where(predicate);
+        }
+
+        long total = 0;
+        Map<String, Long> types = new TreeMap<>();
+        Map<Long, Long> manufacturers = new TreeMap<>();
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(3, Long.class);
+            total += count;
+            if (row.get(0) != null)
+                types.merge(row.get(0, String.class), count, Long::sum);
+            if (row.get(1) != null)
+                manufacturers.merge(row.get(1, Long.class), count, Long::sum);
+            if (row.get(2) != null)
+                buckets.merge(((Number) row.get(2)).intValue(), count, Long::sum);
+        }
+
+        List<AbvBucketDTO> abv = new ArrayList<>(buckets.size());
+        buckets.forEach((index, count) -> abv.add(new AbvBucketDTO(index * abvBucketWidth, (index + 1) * abvBucketWidth, count)));
+        return new BeerFacetsDTO(total, types, manufacturers, abv);
+    }
+
+    // Unlike QueryUtils.toOrders this doesn't join manufacturer to sort by its id. Nulls are the
+    // smallest value whatever the database's default, as the keyset seek predicate expects
+    private static List<Order> toOrders(Sort sort, Root<Beer> root, CriteriaBuilder cb) {
+        HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = BeerSpecifications.resolve(root, order.getProperty());
+            orders.add(order.isAscending() ? hcb.asc(path, true) : hcb.desc(path, false));
+        }
+        return orders;
+    }
+
+}
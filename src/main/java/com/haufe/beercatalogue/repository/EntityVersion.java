@@ -0,0 +1,21 @@
+package com.haufe.beercatalogue.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of the version columns of a catalogue entity, enough to answer a conditional GET.
+ */
+public interface EntityVersion {
+
+    Long getVersion();
+
+    Instant getLastModified();
+
+    static EntityVersion of(Long version, Instant lastModified) {
+        return new EntityVersion() {
+            public Long getVersion() { return version; }
+            public Instant getLastModified() { return lastModified; }
+        };
+    }
+
+}
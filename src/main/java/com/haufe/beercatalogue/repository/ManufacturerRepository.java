@@ -2,12 +2,31 @@ package com.haufe.beercatalogue.repository;
 
 import com.haufe.beercatalogue.model.Manufacturer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface ManufacturerRepository extends JpaRepository<Manufacturer, Long> {
     
     Page<Manufacturer> findAll(Pageable pageable);
 
+    Slice<Manufacturer> findAllBy(Pageable pageable);
+
+    @Query("select m.version as version, m.lastModified as lastModified from Manufacturer m where m.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    interface NameEntry {
+        Long getId();
+        String getName();
+    }
+
+    @Query("select m.id as id, m.name as name from Manufacturer m")
+    List<NameEntry> findNameEntries();
+
 }
\ No newline at end of file
@@ -1,5 +1,14 @@
 package com.haufe.beercatalogue.repository.specification;
 
+import java.util.Collection;
+import java.util.Locale;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import com.haufe.beercatalogue.model.Beer;
 
@@ -7,17 +16,19 @@ public class BeerSpecifications {
 
     /* Filtering for beer queries */
 
+    private static final char ESCAPE = '\\';
+
     public static Specification<Beer> hasNameLike(String name) {
         return (root, query, cb) -> {
             if (name == null || name.isBlank()) return null;
-            return cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+            return cb.like(root.get("nameLower"), contains(name), ESCAPE);
         };
     }
 
     public static Specification<Beer> hasTypeLike(String type) {
         return (root, query, cb) -> {
             if (type == null || type.isBlank()) return null;
-            return cb.like(cb.lower(root.get("type")), "%" + type.toLowerCase() + "%");
+            return cb.like(root.get("typeLower"), contains(type), ESCAPE);
         };
     }
 
@@ -34,4 +45,73 @@ public class BeerSpecifications {
             return cb.equal(root.get("abv"), abv);
         };
     }
+
+    public static Specification<Beer> hasAbvBetween(Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min == null && max == null) return null;
+            if (max == null) return cb.greaterThanOrEqualTo(root.get("abv"), min);
+            if (min == null) return cb.lessThanOrEqualTo(root.get("abv"), max);
+            return cb.between(root.get("abv"), min, max);
+        };
+    }
+
+    public static Specification<Beer> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids == null) return null;
+            if (ids.isEmpty()) return cb.disjunction();
+            return root.get("id").in(ids);
+        };
+    }
+
+    /**
+     * Keyset seek predicate: matches the beers that come after (property, id) = (value, lastId)
+     * when sorting by property and then id, both in the given direction. A null value is the
+     * smallest one, first when ascending and last when descending.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static Specification<Beer> isAfter(String property, Sort.Direction direction, Comparable value, Long lastId) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = direction.isDescending() ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if (property.equals("id")) return idAfter;
+
+            Expression key = resolve(root, property);
+
+            if (value == null) {
+                // Ascending every non-null key follows the nulls, descending nothing does
+                Predicate nullAfter = cb.and(cb.isNull(key), idAfter);
+                return direction.isDescending() ? nullAfter : cb.or(cb.isNotNull(key), nullAfter);
+            }
+
+            Predicate keyAfter = direction.isDescending() ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+            Predicate after = cb.or(keyAfter, cb.and(cb.equal(key, value), idAfter));
+            return direction.isDescending() ? cb.or(after, cb.isNull(key)) : after;
+        };
+    }
+
+    /**
+     * Pattern matching the values containing the text, lowercased as the trigram index does and with
+     * its LIKE wildcards escaped, so "100%" only matches a literal percent sign.
+     */
+    private static String contains(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder pattern = new StringBuilder(lower.length() + 2).append('%');
+        for (char c : lower.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_')
+                pattern.append(ESCAPE);
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Resolves a dotted property path such as "manufacturer.id" without joining,
+     * so foreign key columns are read straight from the beer table.
+     */
+    public static Path<?> resolve(Root<Beer> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\."))
+            path = path.get(segment);
+        return path;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.haufe.beercatalogue.security;
+
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+public class AuthenticatedUser extends User {
+
+    /* Principal carrying everything authorization decisions need, so they don't reload the user */
+
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+    public static final String ROLE_MANUFACTURER = "ROLE_MANUFACTURER";
+
+    private final Long userId;
+    private final String role;
+    private final Long manufacturerId;
+
+    public AuthenticatedUser(Long userId, String username, String password, String role, Long manufacturerId) {
+        super(username, password, List.of(new SimpleGrantedAuthority(role)));
+        this.userId = userId;
+        this.role = role;
+        this.manufacturerId = manufacturerId;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+    public Long getManufacturerId() { return manufacturerId; }
+
+    public boolean isAdmin() {
+        return ROLE_ADMIN.equals(role);
+    }
+
+    public boolean isManufacturer() {
+        return ROLE_MANUFACTURER.equals(role);
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.haufe.beercatalogue.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Component
+public class TokenService {
+
+    /* Issues and verifies self-contained access tokens: HS256 signed JWTs carrying the
+       username, role and manufacturer id, so requests can be authenticated without BCrypt,
+       database lookups or server-side sessions. */
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+        "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final ObjectMapper objectMapper;
+
+    public TokenService(@Value("${beercatalogue.token.secret:}") String secret,
+            @Value("${beercatalogue.token.ttl:1h}") Duration ttl,
+            ObjectMapper objectMapper) {
+        this.key = new SecretKeySpec(resolveSecret(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.objectMapper = objectMapper;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(AuthenticatedUser user) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", user.getUsername());
+        claims.put("uid", user.getUserId());
+        claims.put("role", user.getRole());
+        claims.put("mid", user.getManufacturerId());
+        claims.put("exp", Instant.now().plus(ttl).getEpochSecond());
+
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signingInput = HEADER + "." + payload;
+            return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not issue token", ex);
+        }
+    }
+
+    /**
+     * Returns the user the token was issued to, or empty if it is malformed, tampered with or expired.
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length != 3 || !HEADER.equals(parts[0]))
+                return Optional.empty();
+
+            byte[] expected = sign(parts[0] + "." + parts[1]);
+            if (!MessageDigest.isEqual(expected, DECODER.decode(parts[2])))
+                return Optional.empty();
+
+            JsonNode claims = objectMapper.readTree(DECODER.decode(parts[1]));
+            if (claims.path("exp").asLong() <= Instant.now().getEpochSecond())
+                return Optional.empty();
+
+            JsonNode manufacturerId = claims.path("mid");
+            return Optional.of(new AuthenticatedUser(
+                claims.path("uid").asLong(),
+                claims.path("sub").asText(),
+                "",
+                claims.path("role").asText(),
+                manufacturerId.isNumber() ? manufacturerId.asLong() : null));
+        } catch (Exception ex) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String signingInput) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(key);
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("beercatalogue.token.secret is not set, using a random key. " +
+                "Tokens won't survive a restart nor be accepted by other replicas.");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+
+        byte[] bytes = Base64.getDecoder().decode(secret);
+        if (bytes.length < 32)
+            throw new IllegalArgumentException("beercatalogue.token.secret must be at least 256 bits");
+        return bytes;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.haufe.beercatalogue.service;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import com.haufe.beercatalogue.dto.LoginDTO;
+import com.haufe.beercatalogue.dto.TokenResponseDTO;
+import com.haufe.beercatalogue.security.AuthenticatedUser;
+import com.haufe.beercatalogue.security.TokenService;
+
+@Service
+public class AuthService {
+
+    /* Exchanges credentials for an access token, so the password is only checked once */
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    public AuthService(AuthenticationManager authenticationManager, TokenService tokenService) {
+        this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+    }
+
+    public TokenResponseDTO login(LoginDTO dto) {
+        Authentication auth = authenticationManager.authenticate(
+            UsernamePasswordAuthenticationToken.unauthenticated(dto.getUsername(), dto.getPassword()));
+
+        AuthenticatedUser user = (AuthenticatedUser) auth.getPrincipal();
+        return new TokenResponseDTO(tokenService.issue(user), "Bearer", tokenService.getTtl().toSeconds());
+    }
+
+}
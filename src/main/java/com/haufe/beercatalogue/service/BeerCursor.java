@@ -0,0 +1,51 @@
+package com.haufe.beercatalogue.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.haufe.beercatalogue.exception.BadRequestException;
+
+public class BeerCursor {
+
+    /* Opaque keyset cursor: the sort the client is paging through plus the sort key and id
+       of the last beer it has seen. Encoded as url-safe base64 of "property:dir:id:value", or of
+       "property:dir:id" when the sort key of the last beer is null. */
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final String lastValue;
+
+    public BeerCursor(String property, Sort.Direction direction, Long lastId, String lastValue) {
+        this.property = property;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public String getProperty() { return property; }
+    public Sort.Direction getDirection() { return direction; }
+    public Long getLastId() { return lastId; }
+    public String getLastValue() { return lastValue; }
+
+    public String encode() {
+        String raw = property + ":" + direction.name() + ":" + lastId + (lastValue == null ? "" : ":" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BeerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length < 3)
+                throw new BadRequestException("Invalid cursor: " + token);
+
+            return new BeerCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), parts.length == 4 ? parts[3] : null);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+
+}
@@ -0,0 +1,359 @@
+package com.haufe.beercatalogue.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haufe.beercatalogue.dto.BeerCreateDTO;
+import com.haufe.beercatalogue.dto.BulkImportResultDTO;
+import com.haufe.beercatalogue.dto.RowErrorDTO;
+import com.haufe.beercatalogue.exception.BadRequestException;
+import com.haufe.beercatalogue.mapper.BeerMapper;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+@Service
+public class BeerImportService {
+
+    /* Imports beers streamed as NDJSON or CSV. Rows are read one at a time, validated and
+       authorized on their own, and the valid ones are inserted in JDBC batches, each batch in its
+       own transaction followed by a clear of the persistence context so memory stays flat. A batch
+       the database refuses stops the import, the batches before it stay committed and the report
+       covers the rows read up to the failed batch. */
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("name", "abv", "type", "manufacturerId");
+
+    @FunctionalInterface
+    private interface RowParser {
+        BeerCreateDTO parse(String row) throws IOException;
+    }
+
+    // The rows of a body, read one at a time and skipping blank ones
+    private interface RowReader {
+        /** Returns the next row, or null at the end of the body. */
+        String next() throws IOException;
+
+        /** Returns the line the last row read starts on. */
+        long line();
+    }
+
+    // A row that can't be turned into a beer, with the reason reported for it
+    private static final class RowException extends IllegalArgumentException {
+        RowException(String message) {
+            super(message);
+        }
+    }
+
+    private final ManufacturerRepository manufacturerRepository;
+    private final BeerAuthorizationService beerAuthorizationService;
+    private final BeerMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public BeerImportService(ManufacturerRepository manufacturerRepository, BeerAuthorizationService beerAuthorizationService,
+            BeerMapper mapper, EntityManager entityManager, TransactionTemplate transactionTemplate,
+            Validator validator, ObjectMapper objectMapper,
+            @Value("${beercatalogue.import.batch-size:500}") int batchSize,
+            @Value("${beercatalogue.import.max-errors:1000}") int maxErrors) {
+        this.manufacturerRepository = manufacturerRepository;
+        this.beerAuthorizationService = beerAuthorizationService;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports one beer per line, each line being a JSON object with the fields of BeerCreateDTO.
+     */
+    public BulkImportResultDTO importNdjson(InputStream body) throws IOException {
+        return importRows(new NdjsonLines(reader(body)), line -> objectMapper.readValue(line, BeerCreateDTO.class));
+    }
+
+    /**
+     * Imports one beer per record after a header record naming the columns
+     * (name, abv, type, description, manufacturerId, in any order). Records follow RFC 4180,
+     * a quoted field may hold separators, doubled quotes and line breaks.
+     */
+    public BulkImportResultDTO importCsv(InputStream body) throws IOException {
+        RowReader records = new CsvRecords(reader(body));
+        String header = records.next();
+        if (header == null)
+            return new BulkImportResultDTO(0, 0, List.of());
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++)
+            columns.put(names.get(i).trim(), i);
+        if (!columns.keySet().containsAll(REQUIRED_CSV_COLUMNS))
+            throw new BadRequestException("CSV header must contain the columns " + String.join(", ", REQUIRED_CSV_COLUMNS));
+
+        return importRows(records, record -> {
+            List<String> values = splitCsv(record);
+            String abv = column(values, columns, "abv");
+            String manufacturerId = column(values, columns, "manufacturerId");
+            // A missing abv would read as 0, a valid strength
+            if (abv == null || abv.isBlank())
+                throw new RowException("ABV is required");
+            return new BeerCreateDTO(
+                column(values, columns, "name"),
+                Double.parseDouble(abv),
+                column(values, columns, "type"),
+                column(values, columns, "description"),
+                manufacturerId == null ? null : Long.valueOf(manufacturerId));
+        });
+    }
+
+    private BulkImportResultDTO importRows(RowReader rows, RowParser parser) throws IOException {
+        List<BeerCreateDTO> batch = new ArrayList<>(batchSize);
+        long batchFirstLine = 0;
+        List<RowErrorDTO> errors = new ArrayList<>();
+        Map<Long, Optional<String>> manufacturerErrors = new HashMap<>();
+        int imported = 0;
+        int failed = 0;
+
+        long lineNumber = 0;
+        String text;
+        while ((text = rows.next()) != null) {
+            lineNumber = rows.line();
+
+            String error;
+            BeerCreateDTO row = null;
+            try {
+                row = parser.parse(text);
+                error = validate(row);
+                if (error == null)
+                    error = manufacturerErrors.computeIfAbsent(row.getManufacturerId(), this::checkManufacturer).orElse(null);
+            } catch (RowException ex) {
+                error = ex.getMessage();
+            } catch (JsonProcessingException | IllegalArgumentException | IndexOutOfBoundsException ex) {
+                error = "Malformed row";
+            }
+
+            if (error != null) {
+                failed++;
+                if (errors.size() < maxErrors)
+                    errors.add(new RowErrorDTO(lineNumber, error));
+                continue;
+            }
+
+            if (batch.isEmpty())
+                batchFirstLine = lineNumber;
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                if (!persist(batch))
+                    return stopped(imported, failed, errors, batch.size(), batchFirstLine, lineNumber);
+                imported += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            if (!persist(batch))
+                return stopped(imported, failed, errors, batch.size(), batchFirstLine, lineNumber);
+            imported += batch.size();
+        }
+
+        return new BulkImportResultDTO(imported, failed, errors);
+    }
+
+    // Report of an import stopped by a failed batch, the error for it is kept even past max errors
+    private static BulkImportResultDTO stopped(int imported, int failed, List<RowErrorDTO> errors,
+            int batchRows, long firstLine, long lastLine) {
+        errors.add(new RowErrorDTO(firstLine,
+            "Rows from line " + firstLine + " to " + lastLine + " could not be saved, the import stopped here"));
+        return new BulkImportResultDTO(imported, failed + batchRows, errors);
+    }
+
+    // Returns false when the database refused the batch, which is then rolled back
+    private boolean persist(List<BeerCreateDTO> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (BeerCreateDTO row : rows)
+                    entityManager.persist(mapper.toEntity(row, manufacturerRepository.getReferenceById(row.getManufacturerId())));
+
+                // Send the batch and drop the managed beers before the next one
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return true;
+        } catch (PersistenceException | DataAccessException | TransactionException ex) {
+            // Don't leave the refused beers managed, they would be flushed again by the caller's transaction
+            entityManager.clear();
+            return false;
+        }
+    }
+
+    private String validate(BeerCreateDTO row) {
+        Set<ConstraintViolation<BeerCreateDTO>> violations = validator.validate(row);
+        if (violations.isEmpty())
+            return null;
+        return violations.stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    // Checked once per manufacturer and import, returns the error message if rows for it can't be imported
+    private Optional<String> checkManufacturer(Long manufacturerId) {
+        if (!beerAuthorizationService.canCreateBeer(manufacturerId))
+            return Optional.of("You do not have permission to create a beer for manufacturer " + manufacturerId);
+        if (!manufacturerRepository.existsById(manufacturerId))
+            return Optional.of("Manufacturer with id " + manufacturerId + " not found");
+        return Optional.empty();
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size())
+            return null;
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Splits a CSV record, supporting double quoted fields with "" escapes and line breaks
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted)
+            throw new IllegalArgumentException("Unterminated quote");
+        values.add(value.toString());
+        return values;
+    }
+
+    private static final class NdjsonLines implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonLines(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (!text.isBlank())
+                    return text;
+            }
+            return null;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+    }
+
+    // Cuts CSV records at the line breaks outside quotes, the quoted ones are kept for splitCsv
+    private static final class CsvRecords implements RowReader {
+        private final BufferedReader reader;
+        private long breaks;
+        private long start;
+
+        CsvRecords(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String next() throws IOException {
+            StringBuilder record = new StringBuilder();
+            boolean quoted = false;
+            start = breaks + 1;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n' || c == '\r') {
+                    String lineBreak = lineBreak(c);
+                    breaks++;
+                    if (quoted) {
+                        record.append(lineBreak);
+                    } else if (!record.toString().isBlank()) {
+                        return record.toString();
+                    } else {
+                        record.setLength(0);
+                        start = breaks + 1;
+                    }
+                    continue;
+                }
+                // Doubled quotes toggle twice, so this tells whether the record is inside a quoted field
+                if (c == '"')
+                    quoted = !quoted;
+                record.append((char) c);
+            }
+            return record.toString().isBlank() ? null : record.toString();
+        }
+
+        @Override
+        public long line() {
+            return start;
+        }
+
+        // Reads the rest of a CRLF line break
+        private String lineBreak(int c) throws IOException {
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() == '\n')
+                    return "\r\n";
+                reader.reset();
+                return "\r";
+            }
+            return "\n";
+        }
+    }
+
+}
@@ -1,17 +1,33 @@
 package com.haufe.beercatalogue.service;
 
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.DetailCache;
+import com.haufe.beercatalogue.cache.ListVersions;
+import com.haufe.beercatalogue.dto.BatchResponse;
 import com.haufe.beercatalogue.dto.BeerCreateDTO;
 import com.haufe.beercatalogue.dto.BeerDetailDTO;
+import com.haufe.beercatalogue.dto.BeerFacetsDTO;
 import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.dto.CursorPageResponse;
+import com.haufe.beercatalogue.dto.SuggestionDTO;
 import com.haufe.beercatalogue.exception.ResourceNotFoundException;
+import com.haufe.beercatalogue.index.BeerFullTextIndex;
+import com.haufe.beercatalogue.index.BeerSearchIndex;
+import com.haufe.beercatalogue.index.NameSuggestIndex;
 import com.haufe.beercatalogue.mapper.BeerMapper;
 import com.haufe.beercatalogue.model.Beer;
 import com.haufe.beercatalogue.model.Manufacturer;
 import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.EntityVersion;
 import com.haufe.beercatalogue.repository.ManufacturerRepository;
 import com.haufe.beercatalogue.exception.BadRequestException;
 import com.haufe.beercatalogue.repository.specification.BeerSpecifications;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Sort;
@@ -20,82 +36,258 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BeerService {
 
-    private static final Map<String, String> SORT_FIELDS = Map.of("name", "name", "type", "type", "abv", "abv", "manufacturer", "manufacturer_id");
+    private record CountKey(String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId) {}
+
+    // Ids a single batch get resolves, more would not fit in a request line anyway
+    private static final int MAX_BATCH_IDS = 100;
+
+    private static final Map<String, String> SORT_FIELDS = Map.of("name", "name", "type", "type", "abv", "abv", "manufacturer", "manufacturer.id");
 
     private final BeerRepository beerRepository;
     private final ManufacturerRepository manufacturerRepository;
     private final BeerAuthorizationService beerAuthorizationService;
+    private final BeerSearchIndex searchIndex;
+    private final BeerFullTextIndex fullTextIndex;
+    private final NameSuggestIndex<Beer> beerSuggestIndex;
+    private final CountCache beerCountCache;
     private final BeerMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final ListVersions listVersions;
+    private final DetailCache<Beer, BeerDetailDTO> beerDetailCache;
 
-    public BeerService(BeerRepository beerRepository, ManufacturerRepository manufacturerRepository, BeerMapper mapper, BeerAuthorizationService beerAuthorizationService) {
+    public BeerService(BeerRepository beerRepository, ManufacturerRepository manufacturerRepository, BeerMapper mapper, BeerAuthorizationService beerAuthorizationService, BeerSearchIndex searchIndex,
+            @Qualifier("beerCountCache") CountCache beerCountCache, ObjectMapper objectMapper, ListVersions listVersions,
+            DetailCache<Beer, BeerDetailDTO> beerDetailCache, BeerFullTextIndex fullTextIndex, NameSuggestIndex<Beer> beerSuggestIndex) {
         this.beerRepository = beerRepository;
         this.manufacturerRepository = manufacturerRepository;
         this.beerAuthorizationService = beerAuthorizationService;
+        this.searchIndex = searchIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.beerSuggestIndex = beerSuggestIndex;
+        this.beerCountCache = beerCountCache;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.listVersions = listVersions;
+        this.beerDetailCache = beerDetailCache;
     }
     
+    @Timed(value = "beercatalogue.beers.list", description = "Time spent listing beers")
+    @Transactional(readOnly = true)
     public Page<BeerSummaryDTO> getList(
             int page, int size, String sortBy, String direction,
-            String name, String type, Double abv, Long manufacturerId) {
-        Sort sort = Sort.unsorted();
+            String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId) {
+        Pageable pageable = PageRequest.of(page, size, buildSort(sortBy, direction));
+        Specification<Beer> spec = buildSpecification(name, type, abv, abvMin, abvMax, manufacturerId);
 
-        // Validate and set sort direction
-        if (sortBy != null && !sortBy.isBlank()) {
-            if (!SORT_FIELDS.containsKey(sortBy))
-                throw new BadRequestException("Invalid sort field: " + sortBy);
-
-            Sort.Direction sortDirection = Sort.Direction.ASC;
-            if (direction != null && !direction.isBlank()) {
-                try {
-                    sortDirection = Sort.Direction.fromString(direction);
-                } catch (IllegalArgumentException ex) {
-                    throw new BadRequestException("Invalid sort direction: " + direction);
-                }
-            }
+        Optional<Page<BeerSummaryDTO>> indexed = findByAbv(name, type, abv, abvMin, abvMax, manufacturerId, pageable);
+        if (indexed.isPresent())
+            return indexed.get();
 
-            sort = Sort.by(sortDirection, SORT_FIELDS.get(sortBy));
-        }
+        // Fetch only the summary columns without counting, the total comes from the count cache when needed
+        Slice<BeerSummaryDTO> slice = beerRepository.findSummaries(spec, pageable);
+        CountKey countKey = new CountKey(normalize(name), normalize(type), abv, abvMin, abvMax, manufacturerId);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+            () -> beerCountCache.get(countKey, () -> beerRepository.count(spec)));
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
+    /**
+     * Count-free variant of getList: only reports whether there is a next page.
+     */
+    @Timed(value = "beercatalogue.beers.list", description = "Time spent listing beers")
+    @Transactional(readOnly = true)
+    public Slice<BeerSummaryDTO> getSlice(
+            int page, int size, String sortBy, String direction,
+            String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId) {
+        Pageable pageable = PageRequest.of(page, size, buildSort(sortBy, direction));
+        Specification<Beer> spec = buildSpecification(name, type, abv, abvMin, abvMax, manufacturerId);
 
-        // Build dynamic specifications based on provided filters
-        Specification<Beer> spec = null;
-        if (name != null) {
-            Specification<Beer> nameSpec = BeerSpecifications.hasNameLike(name);
-            spec = (spec == null) ? nameSpec : spec.and(nameSpec);
-        }
+        Optional<Page<BeerSummaryDTO>> indexed = findByAbv(name, type, abv, abvMin, abvMax, manufacturerId, pageable);
+        if (indexed.isPresent())
+            return indexed.get();
 
-        if (type != null) {
-            Specification<Beer> typeSpec = BeerSpecifications.hasTypeLike(type);
-            spec = (spec == null) ? typeSpec : spec.and(typeSpec);
-        }
+        return beerRepository.findSummaries(spec, pageable);
+    }
+
+    /**
+     * Keyset variant of getList: returns the page of beers following the given cursor
+     * (or the first one if it is blank) without OFFSET scans or counting.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<BeerSummaryDTO> getListAfter(
+            String cursor, int size, String sortBy, String direction,
+            String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId) {
+        if (size < 1)
+            throw new BadRequestException("Invalid page size: " + size);
+
+        // Always break ties on id so the seek position is unique
+        Sort.Order order = buildSort(sortBy, direction).stream().findFirst().orElse(Sort.Order.asc("id"));
+        Sort sort = order.getProperty().equals("id")
+            ? Sort.by(order)
+            : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
 
-        if (manufacturerId != null) {
-            Specification<Beer> manufacturerSpec = BeerSpecifications.hasManufacturerId(manufacturerId);
-            spec = (spec == null) ? manufacturerSpec : spec.and(manufacturerSpec);
+        Specification<Beer> spec = buildSpecification(name, type, abv, abvMin, abvMax, manufacturerId);
+        if (cursor != null && !cursor.isBlank()) {
+            BeerCursor after = BeerCursor.decode(cursor);
+            if (!after.getProperty().equals(order.getProperty()) || after.getDirection() != order.getDirection())
+                throw new BadRequestException("Cursor does not match the requested sort");
+
+            Comparable<?> lastValue = parseSortValue(after.getProperty(), after.getLastValue());
+            spec = and(spec, BeerSpecifications.isAfter(order.getProperty(), order.getDirection(), lastValue, after.getLastId()));
         }
 
-        if (abv != null) {
-            Specification<Beer> abvSpec = BeerSpecifications.hasAbv(abv);
-            spec = (spec == null) ? abvSpec : spec.and(abvSpec);
+        // Fetch one extra row to know whether there is a next page
+        List<BeerRepository.KeysetEntry> beers = beerRepository.findKeysetSummaries(spec, sort, size + 1);
+
+        String nextCursor = null;
+        if (beers.size() > size) {
+            beers = beers.subList(0, size);
+            BeerRepository.KeysetEntry last = beers.get(size - 1);
+            String lastValue = last.sortValue() == null ? null : last.sortValue().toString();
+            nextCursor = new BeerCursor(order.getProperty(), order.getDirection(), last.id(), lastValue).encode();
         }
 
-        // Fetch paginated results with applied specifications
-        Page<Beer> pageResult = beerRepository.findAll(spec, pageable);
-        return pageResult.map(mapper::toSummary);
+        return new CursorPageResponse<>(beers.stream().map(beer -> new BeerSummaryDTO(beer.id(), beer.name())).toList(), size, nextCursor);
+    }
+
+    /**
+     * Returns a page of the beers matching any word of the query in their name, type, description
+     * or manufacturer name, most relevant first.
+     */
+    @Transactional(readOnly = true)
+    public Page<BeerSummaryDTO> search(String query, int page, int size) {
+        if (query == null || query.isBlank())
+            throw new BadRequestException("Search query must not be blank");
+        if (size < 1)
+            throw new BadRequestException("Invalid page size: " + size);
+
+        return fullTextIndex.search(query, PageRequest.of(page, size));
     }
 
+    /**
+     * Returns at most limit beers with a word of their name starting with the prefix, for typeahead.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank())
+            throw new BadRequestException("Prefix must not be blank");
+        if (limit < 1 || limit > NameSuggestIndex.MAX_LIMIT)
+            throw new BadRequestException("Invalid limit: " + limit);
+
+        return beerSuggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Counts the beers matching the filters of getList per type, per manufacturer and per abv bucket.
+     */
+    @Transactional(readOnly = true)
+    public BeerFacetsDTO getFacets(String name, String type, Double abv, Double abvMin, Double abvMax, Long manufacturerId) {
+        return beerRepository.countFacets(buildSpecification(name, type, abv, abvMin, abvMax, manufacturerId));
+    }
+
+    /**
+     * Writes every beer matching the filters as one JSON object per line, streaming the rows
+     * from the database so memory use doesn't depend on the size of the catalogue.
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(String sortBy, String direction, String name, String type, Double abv, Double abvMin, Double abvMax,
+            Long manufacturerId, OutputStream out) throws IOException {
+        export(sortBy, direction, name, type, abv, abvMin, abvMax, manufacturerId, out, null, beer -> {
+            try {
+                return objectMapper.writeValueAsString(beer);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Same as exportNdjson, as CSV with a header line. The columns are the ones the bulk import reads.
+     */
+    @Transactional(readOnly = true)
+    public void exportCsv(String sortBy, String direction, String name, String type, Double abv, Double abvMin, Double abvMax,
+            Long manufacturerId, OutputStream out) throws IOException {
+        export(sortBy, direction, name, type, abv, abvMin, abvMax, manufacturerId, out, "id,name,abv,type,description,manufacturerId", beer ->
+            String.join(",", String.valueOf(beer.getId()), csv(beer.getName()), Double.toString(beer.getAbv()),
+                csv(beer.getType()), csv(beer.getDescription()), String.valueOf(beer.getManufacturerId())));
+    }
+
+    /**
+     * Returns the ETag shared by all beer lists, it changes with every write to a beer.
+     */
+    public String getListETag() {
+        return listVersions.eTag(Beer.class);
+    }
+
+    /**
+     * Returns the ETag of search results, which also match manufacturer names, so it changes with
+     * every write to a beer or a manufacturer.
+     */
+    public String getSearchETag() {
+        return listVersions.eTag(Beer.class, Manufacturer.class);
+    }
+
+    /**
+     * Returns the version of the beer without loading it, empty if it doesn't exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getVersion(Long id) {
+        BeerDetailDTO cached = beerDetailCache.getIfPresent(id);
+        if (cached != null)
+            return Optional.of(EntityVersion.of(cached.getVersion(), cached.getLastModified()));
+
+        return beerRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
     public BeerDetailDTO getById(Long id) {
-        return beerRepository.findById(id)
+        return beerDetailCache.get(id, key -> beerRepository.findById(key)
                 .map(mapper::toDetail)
-                .orElseThrow(() -> new ResourceNotFoundException("Beer with id " + id + " not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Beer with id " + key + " not found")));
+    }
+
+    /**
+     * Returns the beers with the given ids in the requested order and the ids that don't exist.
+     * The uncached beers are loaded with a single query.
+     */
+    @Transactional(readOnly = true)
+    public BatchResponse<BeerDetailDTO> getByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>();
+        if (ids != null)
+            ids.stream().filter(id -> id != null).forEach(requested::add);
+        if (requested.isEmpty())
+            throw new BadRequestException("At least one id is required");
+        if (requested.size() > MAX_BATCH_IDS)
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+
+        Map<Long, BeerDetailDTO> found = beerDetailCache.getAll(requested, missing -> beerRepository.findAllById(missing).stream()
+            .collect(Collectors.toMap(Beer::getId, mapper::toDetail)));
+
+        return new BatchResponse<>(
+            requested.stream().filter(found::containsKey).map(found::get).toList(),
+            requested.stream().filter(id -> !found.containsKey(id)).toList());
     }
 
     @Transactional
@@ -142,4 +334,137 @@ public class BeerService {
         beerRepository.delete(beer);
     }
 
+    private Sort buildSort(String sortBy, String direction) {
+        if (sortBy == null || sortBy.isBlank())
+            return Sort.unsorted();
+
+        // Validate and set sort direction
+        if (!SORT_FIELDS.containsKey(sortBy))
+            throw new BadRequestException("Invalid sort field: " + sortBy);
+
+        Sort.Direction sortDirection = Sort.Direction.ASC;
+        if (direction != null && !direction.isBlank()) {
+            try {
+                sortDirection = Sort.Direction.fromString(direction);
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequestException("Invalid sort direction: " + direction);
+            }
+        }
+
+        return Sort.by(sortDirection, SORT_FIELDS.get(sortBy));
+    }
+
+    private void export(String sortBy, String direction, String name, String type, Double abv, Double abvMin, Double abvMax,
+            Long manufacturerId, OutputStream out, String header, Function<BeerDetailDTO, String> formatter) throws IOException {
+        // Default to the primary key order so repeated exports list the beers the same way
+        Sort sort = buildSort(sortBy, direction);
+        if (sort.isUnsorted())
+            sort = Sort.by("id");
+        Specification<Beer> spec = buildSpecification(name, type, abv, abvMin, abvMax, manufacturerId);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (header != null)
+            writer.write(header + "\n");
+        try (Stream<BeerDetailDTO> beers = beerRepository.streamDetails(spec, sort)) {
+            for (BeerDetailDTO beer : (Iterable<BeerDetailDTO>) beers::iterator)
+                writer.write(formatter.apply(beer) + "\n");
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    // Quotes a CSV field when it contains a separator, a quote or a line break
+    private static String csv(String value) {
+        if (value == null)
+            return "";
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r'))
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static Comparable<?> parseSortValue(String property, String value) {
+        if (value == null)
+            return null;
+
+        try {
+            return switch (property) {
+                case "name", "type" -> value;
+                case "abv" -> Double.valueOf(value);
+                default -> Long.valueOf(value);
+            };
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid cursor value: " + value);
+        }
+    }
+
+    /**
+     * Builds the dynamic specification for the provided filters. Name and type filters are
+     * resolved through the trigram index when possible and only fall back to LIKE otherwise.
+     */
+    private Specification<Beer> buildSpecification(String name, String type, Double abv, Double abvMin, Double abvMax,
+            Long manufacturerId) {
+        if (abvMin != null && abvMax != null && abvMin > abvMax)
+            throw new BadRequestException("abvMin must not be greater than abvMax");
+
+        Specification<Beer> spec = null;
+        Set<Long> ids = null;
+
+        if (name != null) {
+            Optional<Set<Long>> nameIds = searchIndex.findByName(name);
+            if (nameIds.isPresent())
+                ids = nameIds.get();
+            else
+                spec = and(spec, BeerSpecifications.hasNameLike(name));
+        }
+
+        if (type != null) {
+            Optional<Set<Long>> typeIds = searchIndex.findByType(type);
+            if (typeIds.isPresent())
+                ids = (ids == null) ? typeIds.get() : intersect(ids, typeIds.get());
+            else
+                spec = and(spec, BeerSpecifications.hasTypeLike(type));
+        }
+
+        if (ids != null)
+            spec = and(spec, BeerSpecifications.hasIdIn(ids));
+
+        if (manufacturerId != null)
+            spec = and(spec, BeerSpecifications.hasManufacturerId(manufacturerId));
+
+        if (abv != null)
+            spec = and(spec, BeerSpecifications.hasAbv(abv));
+
+        if (abvMin != null || abvMax != null)
+            spec = and(spec, BeerSpecifications.hasAbvBetween(abvMin, abvMax));
+
+        return spec;
+    }
+
+    /**
+     * Answers strength browsing (no filters besides the abv range, sorted by abv) from the
+     * in-memory abv index, empty when the query needs the database.
+     */
+    private Optional<Page<BeerSummaryDTO>> findByAbv(String name, String type, Double abv, Double abvMin, Double abvMax,
+            Long manufacturerId, Pageable pageable) {
+        if (normalize(name) != null || normalize(type) != null || abv != null || manufacturerId != null)
+            return Optional.empty();
+
+        return searchIndex.findByAbv(abvMin, abvMax, pageable);
+    }
+
+    private static String normalize(String filter) {
+        return (filter == null || filter.isBlank()) ? null : filter.toLowerCase(Locale.ROOT);
+    }
+
+    private static Specification<Beer> and(Specification<Beer> spec, Specification<Beer> other) {
+        return (spec == null) ? other : spec.and(other);
+    }
+
+    private static Set<Long> intersect(Set<Long> a, Set<Long> b) {
+        Set<Long> result = new HashSet<>(a);
+        result.retainAll(b);
+        return result;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.haufe.beercatalogue.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.haufe.beercatalogue.security.AuthenticatedUser;
+
+@Service
+public class CurrentUserService {
+
+    /* Resolves the user behind the current request */
+
+    private final CustomUserDetailsService userDetailsService;
+
+    public CurrentUserService(CustomUserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    /**
+     * Returns the current user, or null for anonymous requests and unknown users.
+     */
+    public AuthenticatedUser getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return null;
+        }
+
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+
+        // Principals built elsewhere (e.g. anonymous or mock users) go through the cached lookup
+        try {
+            return userDetailsService.loadUserByUsername(auth.getName());
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
+
+}
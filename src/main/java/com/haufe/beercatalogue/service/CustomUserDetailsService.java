@@ -1,36 +1,76 @@
 package com.haufe.beercatalogue.service;
 
+import com.haufe.beercatalogue.cache.Caches;
+import com.haufe.beercatalogue.event.CatalogueChangedEvent;
 import com.haufe.beercatalogue.model.User;
 import com.haufe.beercatalogue.repository.UserRepository;
+import com.haufe.beercatalogue.security.AuthenticatedUser;
 
-import org.springframework.security.core.userdetails.UserDetails;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    /* Custom UserDetailsService to load user details for authentication */
+    /* Custom UserDetailsService to load user details for authentication.
+       User lookups are cached for a short time and dropped whenever a user is written. */
+
+    // Immutable snapshot of a user row, a fresh principal is built from it on every call
+    // because Spring Security erases the password of the principal after authenticating
+    private record UserAccount(Long id, String username, String password, String role, Long manufacturerId) {}
 
     private final UserRepository userRepository;
+    private final AsyncCache<String, UserAccount> accounts;
 
-    public CustomUserDetailsService(UserRepository repo) {
+    public CustomUserDetailsService(UserRepository repo,
+            @Value("${beercatalogue.user-cache.max-size:1000}") long maxSize,
+            @Value("${beercatalogue.user-cache.ttl:5m}") Duration ttl) {
         this.userRepository = repo;
+        this.accounts = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
     }
 
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-           .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        return new org.springframework.security.core.userdetails.User(
-            user.getUsername(),
-            user.getPassword(),
-            List.of(new SimpleGrantedAuthority(user.getRole()))
-        );
+    public AuthenticatedUser loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserAccount account = Caches.get(accounts, username, this::fetch);
+        if (account == null)
+            throw new UsernameNotFoundException("User not found");
+
+        return new AuthenticatedUser(account.id(), account.username(), account.password(),
+            account.role(), account.manufacturerId());
+    }
+
+    /**
+     * Publishes the size, hit, miss and eviction metrics of the user cache under the given name.
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, accounts, name);
+    }
+
+    @EventListener
+    public void onCatalogueChanged(CatalogueChangedEvent event) {
+        if (event.isAbout(User.class))
+            accounts.synchronous().invalidateAll();
+    }
+
+    private UserAccount fetch(String username) {
+        return userRepository.findByUsername(username)
+            .map(user -> new UserAccount(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                user.getManufacturer() != null ? user.getManufacturer().getId() : null))
+            .orElse(null);
     }
-}
\ No newline at end of file
+}
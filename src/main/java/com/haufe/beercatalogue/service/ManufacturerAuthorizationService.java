@@ -1,46 +1,37 @@
 package com.haufe.beercatalogue.service;
 
-import java.util.Optional;
-
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import com.haufe.beercatalogue.model.User;
-import com.haufe.beercatalogue.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+
+import com.haufe.beercatalogue.security.AuthenticatedUser;
 
 @Service
+@Timed(value = "beercatalogue.authorization", description = "Time spent checking permissions")
 public class ManufacturerAuthorizationService {
     
     /* Service to handle authorization logic for manufacturer operations */
 
-    private final UserRepository userRepository;
+    private final CurrentUserService currentUserService;
 
-    public ManufacturerAuthorizationService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public ManufacturerAuthorizationService(CurrentUserService currentUserService) {
+        this.currentUserService = currentUserService;
     }
 
     /**
      * Checks if the current user can edit a manufacturer with the specified ID.
      */
     public boolean canEditManufacturer(Long manufacturerId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
-            return false;
-        }
-
-        String username = auth.getName();
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        if (userOptional.isEmpty())
+        AuthenticatedUser user = currentUserService.getCurrentUser();
+        if (user == null)
             return false;
-        User user = userOptional.get();
 
-        if (user.getRole().equals("ROLE_ADMIN")) {
+        if (user.isAdmin()) {
             return true;
         }
 
-        if (user.getRole().equals("ROLE_MANUFACTURER")) {
-            Long userManufacturerId = user.getManufacturer().getId();
+        if (user.isManufacturer()) {
+            Long userManufacturerId = user.getManufacturerId();
             return userManufacturerId != null && userManufacturerId.equals(manufacturerId);
         }
 
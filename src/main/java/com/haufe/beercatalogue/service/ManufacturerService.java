@@ -1,41 +1,139 @@
 package com.haufe.beercatalogue.service;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.AccessDeniedException;
 
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.DetailCache;
+import com.haufe.beercatalogue.cache.ListVersions;
+import com.haufe.beercatalogue.dto.BatchResponse;
 import com.haufe.beercatalogue.dto.ManufacturerCreateDTO;
 import com.haufe.beercatalogue.dto.ManufacturerDetailDTO;
+import com.haufe.beercatalogue.dto.SuggestionDTO;
+import com.haufe.beercatalogue.exception.BadRequestException;
 import com.haufe.beercatalogue.exception.ResourceNotFoundException;
+import com.haufe.beercatalogue.index.NameSuggestIndex;
 import com.haufe.beercatalogue.model.Manufacturer;
 import com.haufe.beercatalogue.mapper.ManufacturerMapper;
+import com.haufe.beercatalogue.repository.EntityVersion;
 import com.haufe.beercatalogue.repository.ManufacturerRepository;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ManufacturerService {
 
+    private static final String ALL = "all";
+
+    // Ids a single batch get resolves, more would not fit in a request line anyway
+    private static final int MAX_BATCH_IDS = 100;
+
     private final ManufacturerRepository manufacturerRepository;
     private final ManufacturerMapper mapper;
     private final ManufacturerAuthorizationService manufacturerAuthorizationService;
-
-    public ManufacturerService(ManufacturerRepository manufacturerRepository, ManufacturerMapper mapper, ManufacturerAuthorizationService manufacturerAuthorizationService) {
+    private final CountCache manufacturerCountCache;
+    private final ListVersions listVersions;
+    private final DetailCache<Manufacturer, ManufacturerDetailDTO> manufacturerDetailCache;
+    private final NameSuggestIndex<Manufacturer> manufacturerSuggestIndex;
+
+    public ManufacturerService(ManufacturerRepository manufacturerRepository, ManufacturerMapper mapper, ManufacturerAuthorizationService manufacturerAuthorizationService,
+            @Qualifier("manufacturerCountCache") CountCache manufacturerCountCache, ListVersions listVersions,
+            DetailCache<Manufacturer, ManufacturerDetailDTO> manufacturerDetailCache, NameSuggestIndex<Manufacturer> manufacturerSuggestIndex) {
         this.manufacturerRepository = manufacturerRepository;
         this.mapper = mapper;
         this.manufacturerAuthorizationService = manufacturerAuthorizationService;
+        this.manufacturerCountCache = manufacturerCountCache;
+        this.listVersions = listVersions;
+        this.manufacturerDetailCache = manufacturerDetailCache;
+        this.manufacturerSuggestIndex = manufacturerSuggestIndex;
     }
 
+    @Transactional(readOnly = true)
     public Page<ManufacturerDetailDTO> getList(Pageable pageable) {
-        return manufacturerRepository.findAll(pageable).map(mapper::toDetail);
+        // Fetch the content without counting, the total comes from the count cache when needed
+        Slice<Manufacturer> slice = manufacturerRepository.findAllBy(pageable);
+        Page<Manufacturer> page = PageableExecutionUtils.getPage(slice.getContent(), pageable,
+            () -> manufacturerCountCache.get(ALL, manufacturerRepository::count));
+        return page.map(mapper::toDetail);
+    }
+
+    /**
+     * Count-free variant of getList: only reports whether there is a next page.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ManufacturerDetailDTO> getSlice(Pageable pageable) {
+        return manufacturerRepository.findAllBy(pageable).map(mapper::toDetail);
+    }
+
+    /**
+     * Returns at most limit manufacturers with a word of their name starting with the prefix, for typeahead.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank())
+            throw new BadRequestException("Prefix must not be blank");
+        if (limit < 1 || limit > NameSuggestIndex.MAX_LIMIT)
+            throw new BadRequestException("Invalid limit: " + limit);
+
+        return manufacturerSuggestIndex.suggest(prefix, limit);
     }
 
+    /**
+     * Returns the ETag of the manufacturer list, it changes with every write to a manufacturer.
+     */
+    public String getListETag() {
+        return listVersions.eTag(Manufacturer.class);
+    }
+
+    /**
+     * Returns the version of the manufacturer without loading it, empty if it doesn't exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getVersion(Long id) {
+        ManufacturerDetailDTO cached = manufacturerDetailCache.getIfPresent(id);
+        if (cached != null)
+            return Optional.of(EntityVersion.of(cached.getVersion(), cached.getLastModified()));
+
+        return manufacturerRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
     public ManufacturerDetailDTO getById(Long id) {
-        return manufacturerRepository.findById(id)
+        return manufacturerDetailCache.get(id, key -> manufacturerRepository.findById(key)
             .map(mapper::toDetail)
-            .orElseThrow(() -> new ResourceNotFoundException("Manufacturer with id " + id + " not found"));
+            .orElseThrow(() -> new ResourceNotFoundException("Manufacturer with id " + key + " not found")));
+    }
+
+    /**
+     * Returns the manufacturers with the given ids in the requested order and the ids that don't exist.
+     * The uncached manufacturers are loaded with a single query.
+     */
+    @Transactional(readOnly = true)
+    public BatchResponse<ManufacturerDetailDTO> getByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>();
+        if (ids != null)
+            ids.stream().filter(id -> id != null).forEach(requested::add);
+        if (requested.isEmpty())
+            throw new BadRequestException("At least one id is required");
+        if (requested.size() > MAX_BATCH_IDS)
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+
+        Map<Long, ManufacturerDetailDTO> found = manufacturerDetailCache.getAll(requested, missing -> manufacturerRepository.findAllById(missing).stream()
+            .collect(Collectors.toMap(Manufacturer::getId, mapper::toDetail)));
+
+        return new BatchResponse<>(
+            requested.stream().filter(found::containsKey).map(found::get).toList(),
+            requested.stream().filter(id -> !found.containsKey(id)).toList());
     }
     
     @Transactional
@@ -0,0 +1,35 @@
+-- Catalogue schema as previously generated by Hibernate from the entities
+
+create sequence beer_seq start with 1 increment by 50;
+
+create table manufacturer (
+    id bigint generated by default as identity,
+    name varchar(255),
+    country varchar(255),
+    version bigint,
+    last_modified timestamp(6) with time zone,
+    primary key (id)
+);
+
+create table beer (
+    id bigint not null,
+    name varchar(255),
+    abv float(53) not null,
+    type varchar(255),
+    description varchar(1000),
+    manufacturer_id bigint,
+    version bigint,
+    last_modified timestamp(6) with time zone,
+    primary key (id),
+    constraint fk_beer_manufacturer foreign key (manufacturer_id) references manufacturer
+);
+
+create table app_user (
+    id bigint generated by default as identity,
+    username varchar(255),
+    password varchar(255),
+    role varchar(255),
+    manufacturer_id bigint,
+    primary key (id),
+    constraint fk_app_user_manufacturer foreign key (manufacturer_id) references manufacturer
+);
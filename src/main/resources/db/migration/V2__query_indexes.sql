@@ -0,0 +1,21 @@
+-- Indexes shaped after the queries the application actually runs
+
+-- Every authenticated request looks the user up by name (UserRepository.findByUsername)
+create unique index ux_app_user_username on app_user (username);
+
+-- The manufacturer filter and sort (BeerSpecifications.hasManufacturerId, SORT_FIELDS "manufacturer")
+-- are served by the index H2 creates for fk_beer_manufacturer, the ownership checks by the primary key
+
+-- Sorts of the list and keyset pages (SORT_FIELDS), ties broken by id
+create index idx_beer_name on beer (name, id);
+create index idx_beer_type on beer (type, id);
+
+-- Abv range filters and sort (BeerSpecifications.hasAbvBetween)
+create index idx_beer_abv on beer (abv, id);
+
+-- Case-insensitive name and type matching (BeerSpecifications.hasNameLike, hasTypeLike). The lowercase
+-- values are generated columns the queries read directly instead of calling lower() on every row. They
+-- aren't indexed: the filters look for the text anywhere in the value (like '%x%'), which no b-tree can
+-- seek, and the trigram index answers the longer ones before they reach the database
+alter table beer add column name_lower varchar(255) generated always as (lower(name));
+alter table beer add column type_lower varchar(255) generated always as (lower(type));
@@ -0,0 +1,142 @@
+package com.haufe.beercatalogue.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.BeercatalogueApplication;
+import com.haufe.beercatalogue.dto.BeerCreateDTO;
+import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+import com.haufe.beercatalogue.security.AuthenticatedUser;
+import com.haufe.beercatalogue.service.BeerAuthorizationService;
+import com.haufe.beercatalogue.service.BeerService;
+import com.haufe.beercatalogue.service.CustomUserDetailsService;
+
+import jakarta.persistence.EntityManager;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerServiceBenchmark {
+
+    /* JMH benchmarks of BeerService.getList (specification composition, summary query and count)
+       and of the BeerAuthorizationService checks, against an in-memory catalogue of catalogueSize
+       beers. The count cache is off so every list pays for its count.
+       Run with: mvn test -Pjmh -Djmh.args=BeerServiceBenchmark */
+
+    private static final int MANUFACTURERS = 20;
+
+    @Param({ "1000", "100000" })
+    private int catalogueSize;
+
+    @Param({ "10", "50" })
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerAuthorizationService authorizationService;
+    private Long manufacturerId;
+    private Long ownBeerId;
+    private BeerCreateDTO ownBeer;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BeercatalogueApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:jmh",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "beercatalogue.count-cache.enabled=false",
+                "logging.level.root=warn")
+            .run();
+        beerService = context.getBean(BeerService.class);
+        authorizationService = context.getBean(BeerAuthorizationService.class);
+
+        // Spread the beers over the seeded manufacturers as well, so the account below owns its share
+        ManufacturerRepository manufacturerRepository = context.getBean(ManufacturerRepository.class);
+        manufacturerRepository.saveAll(IntStream.range(0, MANUFACTURERS).mapToObj(i -> new Manufacturer("Brewery " + i, "US")).toList());
+        CatalogueGenerator.persist(CatalogueGenerator.beers(catalogueSize, manufacturerRepository.findAll().toArray(Manufacturer[]::new)),
+            context.getBean(EntityManager.class), context.getBean(TransactionTemplate.class));
+
+        // Check permissions as the seeded manufacturer account, on one of its own beers
+        AuthenticatedUser user = context.getBean(CustomUserDetailsService.class).loadUserByUsername("brewery1");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        manufacturerId = user.getManufacturerId();
+        Beer beer = context.getBean(EntityManager.class)
+            .createQuery("select b from Beer b where b.manufacturer.id = :id", Beer.class)
+            .setParameter("id", manufacturerId)
+            .setMaxResults(1)
+            .getSingleResult();
+        ownBeerId = beer.getId();
+        ownBeer = new BeerCreateDTO(beer.getName(), beer.getAbv(), beer.getType(), beer.getDescription(), manufacturerId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BeerSummaryDTO> getListSortedByName() {
+        return beerService.getList(0, pageSize, "name", "asc", null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<BeerSummaryDTO> getListFilteredByNameAndType() {
+        return beerService.getList(0, pageSize, "abv", "desc", "golden", "ale", null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<BeerSummaryDTO> getListByManufacturer() {
+        return beerService.getList(1, pageSize, "abv", "desc", null, null, null, null, null, manufacturerId);
+    }
+
+    @Benchmark
+    public Page<BeerSummaryDTO> getListByAbvRange() {
+        return beerService.getList(2, pageSize, "abv", "desc", null, null, null, 5.0, 7.0, null);
+    }
+
+    @Benchmark
+    public boolean canCreateBeer() {
+        return authorizationService.canCreateBeer(manufacturerId);
+    }
+
+    @Benchmark
+    public boolean canEditBeer() {
+        return authorizationService.canEditBeer(ownBeerId, ownBeer);
+    }
+
+    @Benchmark
+    public boolean canDeleteBeer() {
+        return authorizationService.canDeleteBeer(ownBeerId);
+    }
+
+}
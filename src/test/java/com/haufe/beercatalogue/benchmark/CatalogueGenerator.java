@@ -0,0 +1,57 @@
+package com.haufe.beercatalogue.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+
+import jakarta.persistence.EntityManager;
+
+final class CatalogueGenerator {
+
+    /* Deterministic synthetic beers for the benchmarks, the same count always gives the same catalogue */
+
+    static final String[] STYLES = { "IPA", "Pale Ale", "Stout", "Porter", "Lager", "Pilsner", "Wheat", "Sour", "Saison", "Bock" };
+    static final String[] WORDS = { "Hop", "Golden", "Dark", "Wild", "River", "Old", "Red", "Mountain", "Night", "Harvest",
+        "Iron", "Summer", "Winter", "Hazy", "Royal", "Black", "Crisp", "Amber", "Storm", "Lucky" };
+
+    private CatalogueGenerator() {}
+
+    /**
+     * Generates count beers spread round robin over the given manufacturers.
+     */
+    static List<Beer> beers(int count, Manufacturer... manufacturers) {
+        Random random = new Random(42);
+        List<Beer> beers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String style = STYLES[random.nextInt(STYLES.length)];
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + style + " " + i;
+            double abv = Math.round(Math.clamp(5.5 + random.nextGaussian() * 1.5, 0.5, 15) * 10) / 10.0;
+            String description = "A " + style.toLowerCase() + " brewed with " + WORDS[random.nextInt(WORDS.length)].toLowerCase() + " malt";
+            beers.add(new Beer(name, abv, style, description, manufacturers[i % manufacturers.length]));
+        }
+        return beers;
+    }
+
+    /**
+     * Inserts the beers in JDBC batches, one transaction per batch.
+     */
+    static void persist(List<Beer> beers, EntityManager entityManager, TransactionTemplate transactionTemplate) {
+        int batchSize = 1000;
+        for (int from = 0; from < beers.size(); from += batchSize) {
+            List<Beer> batch = beers.subList(from, Math.min(from + batchSize, beers.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                batch.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.haufe.beercatalogue.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haufe.beercatalogue.BeercatalogueApplication;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class CatalogueLoadTest {
+
+    /* Drives the application, booted against a large synthetic catalogue, with a weighted mix of
+       list, detail, manufacturer and authenticated write requests from concurrent clients. Latencies
+       are recorded per endpoint in HDR histograms, and the test fails when an endpoint exceeds the
+       p99 or error rate thresholds. Every setting is a system property, e.g.
+       mvn test -Pbenchmark -Dtest=CatalogueLoadTest -Dloadtest.mix=list:50,detail:40,create:10 -Dloadtest.p99-ms=100
+       Per endpoint thresholds override the global one: -Dloadtest.detail.p99-ms=20 */
+
+    private static final int BEERS = Integer.getInteger("loadtest.beers", 100_000);
+    private static final int MANUFACTURERS = Integer.getInteger("loadtest.manufacturers", 50);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+    private static final String MIX = System.getProperty("loadtest.mix", "list:55,detail:30,manufacturers:10,create:3,update:2");
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+
+    private static final String[] SORTS = { "name", "type", "abv", "manufacturer" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Integer> weights = parseMix(MIX);
+
+    private HttpClient http;
+    private String baseUrl;
+    private String token;
+    private long[] beerIds;
+    private long[] manufacturerIds;
+    private long ownManufacturerId;
+
+    // Latencies and failures of one endpoint, shared by all the clients
+    private record Endpoint(Histogram latencies, AtomicLong errors) {
+        Endpoint() {
+            this(new ConcurrentHistogram(Duration.ofMinutes(1).toNanos(), 3), new AtomicLong());
+        }
+    }
+
+    @Test
+    void trafficMix() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeercatalogueApplication.class)
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:loadtest",
+                    "spring.jpa.properties.hibernate.generate_statistics=false",
+                    "logging.level.root=warn")
+                .run();
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            seed(context);
+            http = HttpClient.newBuilder().executor(clients).build();
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            token = login("brewery1", "brewpass");
+
+            drive(clients, WARMUP);
+            long started = System.nanoTime();
+            Map<String, Endpoint> endpoints = drive(clients, DURATION);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            report(endpoints, seconds);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        ManufacturerRepository manufacturerRepository = context.getBean(ManufacturerRepository.class);
+        manufacturerRepository.saveAll(IntStream.range(0, MANUFACTURERS).mapToObj(i -> new Manufacturer("Brewery " + i, "US")).toList());
+        List<Manufacturer> manufacturers = manufacturerRepository.findAll();
+        CatalogueGenerator.persist(CatalogueGenerator.beers(BEERS, manufacturers.toArray(Manufacturer[]::new)),
+            context.getBean(EntityManager.class), context.getBean(TransactionTemplate.class));
+
+        beerIds = context.getBean(BeerRepository.class).findIndexEntries().stream().mapToLong(BeerRepository.IndexEntry::getId).toArray();
+        manufacturerIds = manufacturers.stream().mapToLong(Manufacturer::getId).toArray();
+        // brewery1 owns the first manufacturer created by DataInitializer
+        ownManufacturerId = manufacturerIds[0];
+    }
+
+    // Each client picks requests from the mix back to back until the deadline
+    private Map<String, Endpoint> drive(ExecutorService clients, Duration duration) throws Exception {
+        Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+        weights.keySet().forEach(name -> endpoints.put(name, new Endpoint()));
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            Random random = new Random(i);
+            futures.add(clients.submit(() -> {
+                List<Long> created = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    String name = pick(random.nextInt(totalWeight));
+                    HttpRequest request = request(name, random, created);
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    long latency = System.nanoTime() - start;
+
+                    Endpoint endpoint = endpoints.get(name);
+                    if (response.statusCode() >= 400) {
+                        endpoint.errors().incrementAndGet();
+                        continue;
+                    }
+                    endpoint.latencies().recordValue(latency);
+                    if (name.equals("create"))
+                        created.add(objectMapper.readTree(response.body()).get("id").asLong());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get();
+        return endpoints;
+    }
+
+    private HttpRequest request(String name, Random random, List<Long> created) {
+        return switch (name) {
+            case "list" -> get(listQuery(random));
+            case "detail" -> get("/api/beers/" + beerIds[random.nextInt(beerIds.length)]);
+            case "manufacturers" -> random.nextBoolean()
+                ? get("/api/manufacturers?page=" + random.nextInt(3) + "&size=20")
+                : get("/api/manufacturers/" + manufacturerIds[random.nextInt(manufacturerIds.length)]);
+            case "create" -> write("POST", "/api/beers", random);
+            // Update one of the beers this client created, or create the first one
+            case "update" -> created.isEmpty()
+                ? write("POST", "/api/beers", random)
+                : write("PUT", "/api/beers/" + created.get(random.nextInt(created.size())), random);
+            default -> throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + name);
+        };
+    }
+
+    // A filter and sort combination in the proportions the catalogue UI sends them
+    private String listQuery(Random random) {
+        StringBuilder query = new StringBuilder("/api/beers?size=").append(random.nextBoolean() ? 20 : 50)
+            .append("&page=").append(random.nextInt(random.nextInt(10) < 8 ? 3 : 50));
+        int filter = random.nextInt(10);
+        if (filter < 3)
+            query.append("&name=").append(CatalogueGenerator.WORDS[random.nextInt(CatalogueGenerator.WORDS.length)].toLowerCase());
+        else if (filter < 5)
+            query.append("&type=").append(CatalogueGenerator.STYLES[random.nextInt(CatalogueGenerator.STYLES.length)].replace(" ", "%20"));
+        else if (filter < 6)
+            query.append("&manufacturerId=").append(manufacturerIds[random.nextInt(manufacturerIds.length)]);
+        if (random.nextInt(3) > 0)
+            query.append("&sortBy=").append(SORTS[random.nextInt(SORTS.length)]).append("&dir=").append(random.nextBoolean() ? "asc" : "desc");
+        return query.toString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest write(String method, String path, Random random) {
+        String style = CatalogueGenerator.STYLES[random.nextInt(CatalogueGenerator.STYLES.length)];
+        String body = """
+            {"name": "Load %s %d", "abv": %s, "type": "%s", "description": "Brewed under load", "manufacturerId": %d}
+            """.formatted(style, random.nextInt(1_000_000), 4 + random.nextInt(40) / 10.0, style, ownManufacturerId);
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\": \"%s\", \"password\": \"%s\"}".formatted(username, password)))
+            .build();
+        JsonNode response = objectMapper.readTree(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return response.get("accessToken").asText();
+    }
+
+    private String pick(int ticket) {
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            ticket -= weight.getValue();
+            if (ticket < 0)
+                return weight.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    private void report(Map<String, Endpoint> endpoints, double seconds) {
+        System.out.printf("%n%d beers, %d concurrent clients, %d s, mix %s%n", BEERS, CONCURRENCY, DURATION.toSeconds(), MIX);
+        System.out.printf("%-14s %9s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "limit ms");
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            String name = entry.getKey();
+            Histogram latencies = entry.getValue().latencies();
+            long errors = entry.getValue().errors().get();
+            long requests = latencies.getTotalCount() + errors;
+            double p99 = millis(latencies.getValueAtPercentile(99));
+            double limit = Double.parseDouble(System.getProperty("loadtest." + name + ".p99-ms", System.getProperty("loadtest.p99-ms", "500")));
+
+            System.out.printf("%-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.0f%n", name, requests, errors, requests / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)), p99,
+                millis(latencies.getMaxValue()), limit);
+
+            if (p99 > limit)
+                failures.add("%s p99 %.2f ms is over %.0f ms".formatted(name, p99, limit));
+            if (requests > 0 && (double) errors / requests > ERROR_RATE)
+                failures.add("%s failed %d of %d requests".formatted(name, errors, requests));
+        }
+        assertTrue(failures.isEmpty(), String.join("; ", failures));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(parts[0].trim(), Integer.valueOf(parts[1].trim()));
+        }
+        return weights;
+    }
+
+}
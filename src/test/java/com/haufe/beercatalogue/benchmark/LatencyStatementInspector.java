@@ -0,0 +1,22 @@
+package com.haufe.beercatalogue.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class LatencyStatementInspector implements StatementInspector {
+
+    /* Adds a fixed delay to every SQL statement, standing in for the network round trip
+       to a remote database that the in-memory H2 doesn't have */
+
+    private static final long LATENCY_MS = Long.getLong("benchmark.db-latency-ms", 5);
+
+    @Override
+    public String inspect(String sql) {
+        try {
+            Thread.sleep(LATENCY_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return sql;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.haufe.beercatalogue.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haufe.beercatalogue.dto.BeerDetailDTO;
+import com.haufe.beercatalogue.dto.BeerSummaryDTO;
+import com.haufe.beercatalogue.dto.PageResponse;
+import com.haufe.beercatalogue.mapper.BeerMapper;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    /* JMH benchmarks of the work done for every page once the rows are loaded: mapping the
+       entities, wrapping them in a PageResponse and serializing the result to JSON.
+       Run with: mvn test -Pjmh -Djmh.args=MapperBenchmark */
+
+    @Param({ "10", "50", "200" })
+    private int pageSize;
+
+    private final BeerMapper mapper = new BeerMapper();
+    // Configured like the ObjectMapper Spring Boot builds for the controllers
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Beer> beers;
+    private List<BeerSummaryDTO> summaries;
+    private BeerDetailDTO detail;
+    private PageResponse<BeerSummaryDTO> page;
+
+    @Setup
+    public void setUp() {
+        beers = new ArrayList<>(pageSize);
+        for (Beer beer : CatalogueGenerator.beers(pageSize, new Manufacturer(1L, "Brew Co", "US"))) {
+            beer.setId((long) beers.size() + 1);
+            beers.add(beer);
+        }
+        summaries = summaries();
+        detail = mapper.toDetail(beers.get(new Random(42).nextInt(pageSize)));
+        page = pageResponse();
+    }
+
+    @Benchmark
+    public List<BeerSummaryDTO> summaries() {
+        List<BeerSummaryDTO> result = new ArrayList<>(beers.size());
+        for (Beer beer : beers)
+            result.add(mapper.toSummary(beer));
+        return result;
+    }
+
+    @Benchmark
+    public List<BeerDetailDTO> details() {
+        List<BeerDetailDTO> result = new ArrayList<>(beers.size());
+        for (Beer beer : beers)
+            result.add(mapper.toDetail(beer));
+        return result;
+    }
+
+    @Benchmark
+    public PageResponse<BeerSummaryDTO> pageResponse() {
+        return new PageResponse<>(new PageImpl<>(summaries, PageRequest.of(0, pageSize), 100_000));
+    }
+
+    @Benchmark
+    public byte[] serializeDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(detail);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+}
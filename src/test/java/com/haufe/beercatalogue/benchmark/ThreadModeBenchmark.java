@@ -0,0 +1,126 @@
+package com.haufe.beercatalogue.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.haufe.beercatalogue.BeercatalogueApplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+    /* Compares throughput and latency of GET /api/beers with Tomcat on platform threads and on
+       virtual threads. Every SQL statement is delayed to model a remote database and the response
+       caches are off, so each request blocks on the database like an uncached production request.
+       Clients and server share the JVM, so compare the modes on a machine with a few spare cores.
+       Run with: mvn test -Pbenchmark -Dtest=ThreadModeBenchmark */
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 3));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 10));
+    private static final String PATH = System.getProperty("benchmark.path", "/api/beers?sortBy=name");
+
+    private record Result(String mode, long requests, long errors, double throughput, double p50, double p99) {}
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<Result> results = List.of(run("platform", false), run("virtual", true));
+
+        System.out.printf("%nGET %s, %d concurrent clients, %d ms per statement, %d s%n",
+            PATH, CONCURRENCY, Long.getLong("benchmark.db-latency-ms", 5), DURATION.toSeconds());
+        System.out.printf("%-10s %10s %8s %12s %10s %10s%n", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (Result r : results)
+            System.out.printf("%-10s %10d %8d %12.1f %10.2f %10.2f%n", r.mode(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p99());
+
+        for (Result r : results)
+            assertEquals(0, r.errors(), "failed requests in " + r.mode() + " mode");
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeercatalogueApplication.class)
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "server.tomcat.threads.max=" + Integer.getInteger("benchmark.platform-threads", 200),
+                    "spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("benchmark.pool-size", 100),
+                    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LatencyStatementInspector.class.getName(),
+                    "spring.jpa.properties.hibernate.generate_statistics=false",
+                    "beercatalogue.list-cache.enabled=false",
+                    "beercatalogue.count-cache.enabled=false")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + PATH);
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                    HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+                load(http, uri, clients, WARMUP);
+                long started = System.nanoTime();
+                List<long[]> latencies = load(http, uri, clients, DURATION);
+                double seconds = (System.nanoTime() - started) / 1e9;
+
+                long errors = latencies.stream().mapToLong(l -> l[0]).sum();
+                long[] all = latencies.stream().flatMapToLong(l -> Arrays.stream(l, 1, l.length)).sorted().toArray();
+                return new Result(mode, all.length, errors, all.length / seconds, percentile(all, 0.50), percentile(all, 0.99));
+            }
+        }
+    }
+
+    // Each client sends requests back to back, returns per client the error count followed by the latencies in nanos
+    private static List<long[]> load(HttpClient http, URI uri, ExecutorService clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            futures.add(clients.submit(() -> {
+                long errors = 0;
+                long[] latencies = new long[1024];
+                int count = 1;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    long latency = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                    if (count == latencies.length)
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    latencies[count++] = latency;
+                }
+                latencies[0] = errors;
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        List<long[]> results = new ArrayList<>();
+        for (Future<long[]> future : futures)
+            results.add(future.get());
+        return results;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+}
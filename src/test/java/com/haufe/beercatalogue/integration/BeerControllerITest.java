@@ -10,22 +10,41 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 
+import com.jayway.jsonpath.JsonPath;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
 import com.haufe.beercatalogue.model.Beer;
 import com.haufe.beercatalogue.model.Manufacturer;
 import com.haufe.beercatalogue.model.User;
 import com.haufe.beercatalogue.repository.BeerRepository;
 import com.haufe.beercatalogue.repository.ManufacturerRepository;
 import com.haufe.beercatalogue.repository.UserRepository;
+import com.haufe.beercatalogue.support.SqlBudget;
+
+import jakarta.persistence.EntityManager;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -40,8 +59,10 @@ public class BeerControllerITest {
     @Autowired private ManufacturerRepository manufacturerRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
 
     private Manufacturer savedManufacturer;
+    private SqlBudget sqlBudget;
 
     @BeforeEach
     void setUp() {
@@ -50,11 +71,15 @@ public class BeerControllerITest {
         savedManufacturer = manufacturerRepository.save(new Manufacturer("BrewCo", "Germany"));
         
         userRepository.deleteAll();
+        // Usernames are unique and identity inserts run right away, so the deletes must go first
+        userRepository.flush();
         User admin = new User();
         admin.setUsername("admin");
         admin.setPassword(passwordEncoder.encode("adminpass"));
         admin.setRole("ROLE_ADMIN");
         userRepository.save(admin);
+
+        sqlBudget = new SqlBudget(entityManager);
     }
 
     @Test
@@ -186,6 +211,23 @@ public class BeerControllerITest {
             .andExpect(jsonPath("$.content[0].name").value("Alpha"));
     }
 
+    @Test
+    void getList_FilterByShortName_TreatsWildcardsAsText() throws Exception {
+        // Names shorter than a trigram are filtered with LIKE, where % and _ must not act as wildcards
+        beerRepository.save(new Beer("100% Pils", 4.9, "Pils", "Only malt", savedManufacturer));
+        beerRepository.save(new Beer("1000 Pils", 4.9, "Pils", "A thousand of them", savedManufacturer));
+        beerRepository.save(new Beer("Pils_Light", 3.5, "Pils", "Less of it", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers").param("name", "0%"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("100% Pils"));
+        mockMvc.perform(get("/api/beers").param("name", "_"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("Pils_Light"));
+    }
+
     @Test
     void getList_FilterByType_ReturnsMatchingBeers() throws Exception {
         beerRepository.save(new Beer("Lager Light", 4.5, "Lager", "Crisp and clean", savedManufacturer));
@@ -208,6 +250,290 @@ public class BeerControllerITest {
             .andExpect(jsonPath("$.content[0].name").value("Imperial Stout"));
     }
 
+    @Test
+    void getList_FilterByAbvRange_ReturnsBeersWithinBounds() throws Exception {
+        beerRepository.save(new Beer("Session Pale", 4.0, "Pale Ale", "Light", savedManufacturer));
+        beerRepository.save(new Beer("Amber", 5.5, "Amber Ale", "Malty", savedManufacturer));
+        beerRepository.save(new Beer("Imperial Stout", 9.0, "Stout", "Strong and rich", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?abvMin=4.0&abvMax=5.5&sortBy=name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].name").value("Amber"))
+            .andExpect(jsonPath("$.content[1].name").value("Session Pale"));
+
+        mockMvc.perform(get("/api/beers?abvMin=5.0&type=stout"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("Imperial Stout"));
+    }
+
+    @Test
+    void getList_SortedByAbvWithinRange_IsServedFromIndex() throws Exception {
+        beerRepository.save(new Beer("Session Pale", 4.0, "Pale Ale", "Light", savedManufacturer));
+        beerRepository.save(new Beer("Amber", 5.5, "Amber Ale", "Malty", savedManufacturer));
+        beerRepository.save(new Beer("Double IPA", 8.0, "IPA", "Bitter", savedManufacturer));
+        beerRepository.save(new Beer("Imperial Stout", 9.0, "Stout", "Strong and rich", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?abvMin=5.0&sortBy=abv&dir=desc&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("Imperial Stout"))
+            .andExpect(jsonPath("$.content[1].name").value("Double IPA"))
+            .andExpect(jsonPath("$.totalElements").value(3));
+
+        // Once loaded, the index answers other pages and ranges on its own
+        mockMvc.perform(get("/api/beers?abvMin=5.0&abvMax=8.0&sortBy=abv&size=2&page=0").with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("Amber"))
+            .andExpect(jsonPath("$.content[1].name").value("Double IPA"))
+            .andExpect(jsonPath("$.totalElements").value(2))
+            .andExpect(sqlBudget.expect());
+    }
+
+    @Test
+    void getList_ReturnsBadRequest_WhenAbvRangeIsInverted() throws Exception {
+        mockMvc.perform(get("/api/beers?abvMin=6.0&abvMax=5.0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getByIds_ReturnsBeersInRequestedOrder_AndReportsMissingIds() throws Exception {
+        Beer first = beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        Beer second = beerRepository.save(new Beer("Bravo", 6.0, "Stout", "B", savedManufacturer));
+        long missing = second.getId() + 1000;
+
+        mockMvc.perform(get("/api/beers").param("ids", second.getId() + "," + missing + "," + first.getId() + "," + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].name").value("Bravo"))
+            .andExpect(jsonPath("$.content[0].manufacturerId").value(savedManufacturer.getId()))
+            .andExpect(jsonPath("$.content[1].name").value("Alpha"))
+            .andExpect(jsonPath("$.missing.length()").value(1))
+            .andExpect(jsonPath("$.missing[0]").value(missing));
+    }
+
+    @Test
+    void getByIds_ReturnsBadRequest_WhenTooManyIds() throws Exception {
+        String ids = String.join(",", LongStream.rangeClosed(1, 101).mapToObj(Long::toString).toList());
+
+        mockMvc.perform(get("/api/beers").param("ids", ids))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getByIds_ReturnsBadRequest_WithACursor() throws Exception {
+        mockMvc.perform(get("/api/beers").param("ids", "1,2").param("cursor", ""))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("ids and cursor can't be combined"));
+    }
+
+    @Test
+    void getFacets_CountsPerTypeManufacturerAndAbvBucket_InASingleQuery() throws Exception {
+        Manufacturer anotherManufacturer = manufacturerRepository.save(new Manufacturer("OtherBrew", "Italy"));
+        beerRepository.save(new Beer("Session IPA", 4.5, "IPA", "Light", savedManufacturer));
+        beerRepository.save(new Beer("West Coast", 5.2, "IPA", "Bitter", savedManufacturer));
+        beerRepository.save(new Beer("Dry Stout", 5.8, "Stout", "Roasty", anotherManufacturer));
+        beerRepository.save(new Beer("Imperial Stout", 8.0, "Stout", "Strong", anotherManufacturer));
+
+        mockMvc.perform(get("/api/beers/facets").with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(4))
+            .andExpect(jsonPath("$.types.IPA").value(2))
+            .andExpect(jsonPath("$.types.Stout").value(2))
+            .andExpect(jsonPath("$.manufacturers['" + savedManufacturer.getId() + "']").value(2))
+            .andExpect(jsonPath("$.manufacturers['" + anotherManufacturer.getId() + "']").value(2))
+            .andExpect(jsonPath("$.abv.length()").value(3))
+            .andExpect(jsonPath("$.abv[0].from").value(4.0))
+            .andExpect(jsonPath("$.abv[0].count").value(1))
+            .andExpect(jsonPath("$.abv[1].from").value(5.0))
+            .andExpect(jsonPath("$.abv[1].to").value(6.0))
+            .andExpect(jsonPath("$.abv[1].count").value(2))
+            .andExpect(jsonPath("$.abv[2].from").value(8.0))
+            .andExpect(sqlBudget.expect().selects(1));
+    }
+
+    @Test
+    void getFacets_AppliesListFilters() throws Exception {
+        beerRepository.save(new Beer("Session IPA", 4.5, "IPA", "Light", savedManufacturer));
+        beerRepository.save(new Beer("West Coast", 5.2, "IPA", "Bitter", savedManufacturer));
+        beerRepository.save(new Beer("Dry Stout", 5.8, "Stout", "Roasty", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/facets?abvMin=5.0&type=ipa"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(1))
+            .andExpect(jsonPath("$.types.IPA").value(1))
+            .andExpect(jsonPath("$.types.Stout").doesNotExist());
+    }
+
+    @Test
+    void getFacets_AreRecomputed_AfterWrite() throws Exception {
+        beerRepository.save(new Beer("Session IPA", 4.5, "IPA", "Light", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/facets"))
+            .andExpect(jsonPath("$.total").value(1));
+        // Served from the cache now
+        mockMvc.perform(get("/api/beers/facets").with(sqlBudget.capture()))
+            .andExpect(jsonPath("$.total").value(1))
+            .andExpect(sqlBudget.expect());
+
+        mockMvc.perform(post("/api/beers")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"name": "Dry Stout", "abv": 5.8, "type": "Stout", "description": "Roasty", "manufacturerId": %d}
+                    """.formatted(savedManufacturer.getId())))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/beers/facets"))
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.types.Stout").value(1));
+    }
+
+    @Test
+    void search_RanksBeersByRelevance() throws Exception {
+        Manufacturer citrusBrewing = manufacturerRepository.save(new Manufacturer("Citrus Brewing", "US"));
+        beerRepository.save(new Beer("Grapefruit IPA", 6.0, "IPA", "Bitter with grapefruit peel", savedManufacturer));
+        beerRepository.save(new Beer("Breakfast Stout", 8.0, "Stout", "Coffee, oats and a hint of grapefruit", savedManufacturer));
+        beerRepository.save(new Beer("Pils", 4.8, "Pilsner", "Crisp", citrusBrewing));
+
+        mockMvc.perform(get("/api/beers/search?q=Grapefruit"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(2))
+            .andExpect(jsonPath("$.content[0].name").value("Grapefruit IPA"))
+            .andExpect(jsonPath("$.content[1].name").value("Breakfast Stout"));
+
+        mockMvc.perform(get("/api/beers/search?q=citrus"))
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("Pils"));
+    }
+
+    @Test
+    void search_FollowsWrites() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Alpha", 5.0, "IPA", "Piney", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/search?q=piney"))
+            .andExpect(jsonPath("$.totalElements").value(1));
+
+        String json = """
+        {"name": "Alpha", "abv": 5.0, "type": "IPA", "description": "Resinous", "manufacturerId": %d}
+        """.formatted(savedManufacturer.getId());
+        mockMvc.perform(put("/api/beers/" + beer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isOk());
+        beerRepository.flush();
+
+        mockMvc.perform(get("/api/beers/search?q=piney"))
+            .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/api/beers/search?q=resinous"))
+            .andExpect(jsonPath("$.totalElements").value(1));
+
+        mockMvc.perform(delete("/api/beers/" + beer.getId()).with(httpBasic("admin", "adminpass")))
+            .andExpect(status().isNoContent());
+        beerRepository.flush();
+
+        mockMvc.perform(get("/api/beers/search?q=resinous"))
+            .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void search_IsNotCached_AcrossManufacturerRenames() throws Exception {
+        Manufacturer citrusBrewing = manufacturerRepository.save(new Manufacturer("Citrus Brewing", "US"));
+        beerRepository.save(new Beer("Pils", 4.8, "Pilsner", "Crisp", citrusBrewing));
+
+        String eTag = mockMvc.perform(get("/api/beers/search?q=citrus"))
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/api/manufacturers/" + citrusBrewing.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Hop Brewing\", \"country\": \"US\"}"))
+            .andExpect(status().isOk());
+        manufacturerRepository.flush();
+
+        mockMvc.perform(get("/api/beers/search?q=citrus").header("If-None-Match", eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void search_ReturnsBadRequest_WhenQueryIsBlank() throws Exception {
+        mockMvc.perform(get("/api/beers/search?q= "))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rebuildSearchIndex_ReloadsFromDatabase_ForAdminsOnly() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "Piney", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "Stout", "Roasty", savedManufacturer));
+        beerRepository.flush();
+
+        mockMvc.perform(post("/api/admin/search/rebuild"))
+            .andExpect(status().isUnauthorized());
+        // The rebuild only loads committed beers, the ones of this test are still seen through its overlay
+        mockMvc.perform(post("/api/admin/search/rebuild").with(httpBasic("admin", "adminpass")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.indexed").isNumber());
+
+        mockMvc.perform(get("/api/beers/search?q=roasty"))
+            .andExpect(jsonPath("$.content[0].name").value("Bravo"));
+    }
+
+    @Test
+    void suggest_ReturnsBeersWithAWordStartingWithPrefix_WithoutQueries() throws Exception {
+        Beer punk = beerRepository.save(new Beer("Punk IPA", 5.6, "IPA", "Hoppy", savedManufacturer));
+        beerRepository.save(new Beer("Pale IPA Ale", 5.0, "IPA", "Light", savedManufacturer));
+        beerRepository.save(new Beer("Märzen", 5.8, "Lager", "Malty", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/suggest?prefix=IP"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].name").value("Punk IPA"))
+            .andExpect(jsonPath("$[0].id").value(punk.getId()))
+            .andExpect(jsonPath("$[1].name").value("Pale IPA Ale"));
+
+        // Loaded by the first request, the next keystrokes don't query
+        mockMvc.perform(get("/api/beers/suggest?prefix=marz&limit=1").with(sqlBudget.capture()))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].name").value("Märzen"))
+            .andExpect(sqlBudget.expect());
+    }
+
+    @Test
+    void suggest_FollowsWrites() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Alpha", 5.0, "IPA", "Piney", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/suggest?prefix=alp"))
+            .andExpect(jsonPath("$.length()").value(1));
+
+        String json = """
+        {"name": "Omega", "abv": 5.0, "type": "IPA", "description": "Piney", "manufacturerId": %d}
+        """.formatted(savedManufacturer.getId());
+        mockMvc.perform(put("/api/beers/" + beer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isOk());
+        beerRepository.flush();
+
+        mockMvc.perform(get("/api/beers/suggest?prefix=alp"))
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/beers/suggest?prefix=ome"))
+            .andExpect(jsonPath("$[0].name").value("Omega"));
+    }
+
+    @Test
+    void suggest_ReturnsBadRequest_WhenPrefixIsBlankOrLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/beers/suggest?prefix=a&limit=0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/beers/suggest?prefix=a&limit=51"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/beers/suggest").param("prefix", " "))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getList_FilterByManufacturer_ReturnsMatchingBeers() throws Exception {
         Manufacturer anotherManufacturer = manufacturerRepository.save(new Manufacturer("OtherBrew", "Italy"));
@@ -221,4 +547,479 @@ public class BeerControllerITest {
             .andExpect(jsonPath("$.content[0].name").value("Main Brew"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getList_FilterByNameAndType_ReturnsIntersection() throws Exception {
+        beerRepository.save(new Beer("Hazy Session", 4.2, "IPA", "Juicy", savedManufacturer));
+        beerRepository.save(new Beer("Hazy Giant", 8.0, "Double IPA", "Huge", savedManufacturer));
+        beerRepository.save(new Beer("Giant Stout", 9.0, "Stout", "Roasty", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?name=GIANT&type=ipa"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("Hazy Giant"));
+    }
+
+    @Test
+    void getListAfter_WalksAllPagesInSortOrder() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 7.0, "IPA", "B", savedManufacturer));
+        beerRepository.save(new Beer("Charlie", 5.0, "IPA", "C", savedManufacturer));
+        beerRepository.save(new Beer("Delta", 4.0, "IPA", "D", savedManufacturer));
+
+        // Ties on abv are broken by id, in the same direction
+        String body = mockMvc.perform(get("/api/beers?cursor=&sortBy=abv&dir=desc&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("Bravo"))
+            .andExpect(jsonPath("$.content[1].name").value("Charlie"))
+            .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/beers?sortBy=abv&dir=desc&size=2&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].name").value("Alpha"))
+            .andExpect(jsonPath("$.content[1].name").value("Delta"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getListAfter_WalksPastNullSortKeys() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, null, "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "Stout", "B", savedManufacturer));
+        beerRepository.save(new Beer("Charlie", 7.0, null, "C", savedManufacturer));
+        beerRepository.save(new Beer("Delta", 8.0, "IPA", "D", savedManufacturer));
+
+        // Nulls are the smallest type, first when ascending and last when descending
+        Assertions.assertEquals(List.of("Alpha", "Charlie", "Delta", "Bravo"), walk("sortBy=type&dir=asc&size=1"));
+        Assertions.assertEquals(List.of("Bravo", "Delta", "Charlie", "Alpha"), walk("sortBy=type&dir=desc&size=1"));
+    }
+
+    @Test
+    void getListAfter_ReturnsBadRequest_WhenCursorDoesNotMatchSort() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 7.0, "IPA", "B", savedManufacturer));
+
+        String body = mockMvc.perform(get("/api/beers?cursor=&sortBy=name&size=1"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/beers?sortBy=type&size=1&cursor=" + cursor))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/beers?cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getList_WithoutCount_ReportsNextPageInsteadOfTotals() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "IPA", "B", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?size=1&count=false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getList_RecountsAfterBeerIsAdded() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "IPA", "B", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(2));
+
+        beerRepository.save(new Beer("Charlie", 7.0, "IPA", "C", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.totalPages").value(3));
+    }
+
+    @Test
+    void getList_ReturnsBeersSortedByManufacturer_Desc() throws Exception {
+        Manufacturer laterManufacturer = manufacturerRepository.save(new Manufacturer("LaterBrew", "Italy"));
+
+        beerRepository.save(new Beer("First", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Second", 5.0, "IPA", "B", laterManufacturer));
+
+        mockMvc.perform(get("/api/beers?sortBy=manufacturer&dir=desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("Second"))
+            .andExpect(jsonPath("$.content[1].name").value("First"));
+    }
+
+    @Test
+    void bulkCreate_ImportsValidNdjsonRowsAndReportsInvalidOnes() throws Exception {
+        long id = savedManufacturer.getId();
+        String ndjson = """
+        {"name": "Alpha", "abv": 5.0, "type": "IPA", "manufacturerId": %d}
+        {"name": "", "abv": 5.0, "type": "IPA", "manufacturerId": %d}
+        {"name": "Bravo", "abv": 6.0, "type": "Lager", "manufacturerId": %d}
+        not json
+        {"name": "Charlie", "abv": 7.0, "type": "Stout", "manufacturerId": 999999}
+        {"name": "Delta", "abv": 8.0, "type": "Stout", "manufacturerId": %d}
+        """.formatted(id, id, id, id);
+
+        mockMvc.perform(post("/api/beers/bulk")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(3))
+            .andExpect(jsonPath("$.failed").value(3))
+            .andExpect(jsonPath("$.errors[0].line").value(2))
+            .andExpect(jsonPath("$.errors[0].message").value("Name is required"))
+            .andExpect(jsonPath("$.errors[1].line").value(4))
+            .andExpect(jsonPath("$.errors[1].message").value("Malformed row"))
+            .andExpect(jsonPath("$.errors[2].line").value(5))
+            .andExpect(jsonPath("$.errors[2].message").value("Manufacturer with id 999999 not found"));
+
+        mockMvc.perform(get("/api/beers?sortBy=name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.content[2].name").value("Delta"));
+    }
+
+    @Test
+    void bulkCreate_StopsAtABatchTheDatabaseRefuses_AndReportsUpToIt() throws Exception {
+        long id = savedManufacturer.getId();
+        String tooLong = "x".repeat(1001);
+        String ndjson = """
+        {"name": "Alpha", "abv": 5.0, "type": "IPA", "manufacturerId": %1$d}
+        {"name": "Bravo", "abv": 6.0, "type": "Lager", "manufacturerId": %1$d}
+        {"name": "Charlie", "abv": 7.0, "type": "Stout", "description": "%2$s", "manufacturerId": %1$d}
+        {"name": "Delta", "abv": 8.0, "type": "Stout", "manufacturerId": %1$d}
+        {"name": "Echo", "abv": 9.0, "type": "Stout", "manufacturerId": %1$d}
+        """.formatted(id, tooLong);
+
+        // Batches of two, the second one has a description longer than its column
+        mockMvc.perform(post("/api/beers/bulk")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.errors.length()").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(3))
+            .andExpect(jsonPath("$.errors[0].message").value("Rows from line 3 to 4 could not be saved, the import stopped here"));
+    }
+
+    @Test
+    void bulkCreate_ImportsCsvWithHeader() throws Exception {
+        String csv = """
+        manufacturerId,name,type,abv,description
+        %1$d,"Alpha, the first",IPA,5.0,"Says \"\"hello\"\""
+        %1$d,Bravo,Lager,abc,
+        """.formatted(savedManufacturer.getId());
+
+        mockMvc.perform(post("/api/beers/bulk")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        mockMvc.perform(get("/api/beers?name=first"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("Alpha, the first"));
+    }
+
+    @Test
+    void bulkCreate_ReadsQuotedCsvFieldsSpanningLines_AndRequiresAbv() throws Exception {
+        String csv = """
+        name,abv,type,description,manufacturerId
+        Alpha,5.0,IPA,"Brewed in spring,
+        bottled in \"\"summer\"\"",%1$d
+        Bravo,,Lager,,%1$d
+        Charlie,6.0,Stout,Plain,%1$d
+        """.formatted(savedManufacturer.getId());
+
+        mockMvc.perform(post("/api/beers/bulk")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(4))
+            .andExpect(jsonPath("$.errors[0].message").value("ABV is required"));
+
+        Beer alpha = beerRepository.findAll().stream().filter(beer -> beer.getName().equals("Alpha")).findFirst().orElseThrow();
+        Assertions.assertEquals("Brewed in spring,\nbottled in \"summer\"", alpha.getDescription());
+    }
+
+    @Test
+    void bulkCreate_ReturnsUnauthorized_WhenNotAuthenticated() throws Exception {
+        mockMvc.perform(post("/api/beers/bulk")
+                .contentType("application/x-ndjson")
+                .content("{}"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void export_StreamsFilteredBeersAsNdjson() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "Lager", "B", savedManufacturer));
+        beerRepository.save(new Beer("Charlie", 7.0, "IPA", "C", savedManufacturer));
+
+        String body = mockMvc.perform(get("/api/beers/export?type=ipa&sortBy=abv&dir=desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals("Charlie", JsonPath.read(lines[0], "$.name"));
+        Assertions.assertEquals("Alpha", JsonPath.read(lines[1], "$.name"));
+        Assertions.assertEquals(savedManufacturer.getId().intValue(), (Integer) JsonPath.read(lines[1], "$.manufacturerId"));
+    }
+
+    @Test
+    void export_WritesCsvWithHeader() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Alpha, the first", 5.0, "IPA", "Says \"hello\"", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/export?format=csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("""
+                id,name,abv,type,description,manufacturerId
+                %d,"Alpha, the first",5.0,IPA,"Says \"\"hello\"\"",%d
+                """.formatted(beer.getId(), savedManufacturer.getId())));
+    }
+
+    @Test
+    void export_CanBeImportedBack() throws Exception {
+        beerRepository.save(new Beer("Alpha, the first", 5.0, "IPA", "Says \"hello\",\r\nthen goodbye", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.5, "Lager", null, savedManufacturer));
+
+        byte[] exported = mockMvc.perform(get("/api/beers/export?format=csv"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+
+        mockMvc.perform(post("/api/beers/bulk")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType("text/csv")
+                .content(exported))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(0));
+
+        // Every beer now exists twice, the imported copy equal to the exported one but for its id
+        Map<String, List<Beer>> byName = beerRepository.findAll().stream().collect(Collectors.groupingBy(Beer::getName));
+        Assertions.assertEquals(Set.of("Alpha, the first", "Bravo"), byName.keySet());
+        for (List<Beer> copies : byName.values()) {
+            Assertions.assertEquals(2, copies.size());
+            Beer original = copies.get(0), imported = copies.get(1);
+            Assertions.assertEquals(original.getAbv(), imported.getAbv());
+            Assertions.assertEquals(original.getType(), imported.getType());
+            Assertions.assertEquals(original.getDescription(), imported.getDescription());
+            Assertions.assertEquals(original.getManufacturer().getId(), imported.getManufacturer().getId());
+        }
+    }
+
+    @Test
+    void export_ReturnsBadRequest_WhenFormatInvalid() throws Exception {
+        mockMvc.perform(get("/api/beers/export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getById_ReturnsNotModified_UntilBeerChanges() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Test", 5.0, "Lager", "Smooth", savedManufacturer));
+
+        String eTag = mockMvc.perform(get("/api/beers/" + beer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/beers/" + beer.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        beer.setName("Renamed");
+        beerRepository.flush();
+
+        mockMvc.perform(get("/api/beers/" + beer.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Renamed"))
+            .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void getList_ReturnsNotModified_UntilBeerIsAdded() throws Exception {
+        beerRepository.saveAndFlush(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+
+        String eTag = mockMvc.perform(get("/api/beers?sortBy=name"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/beers?sortBy=name").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        beerRepository.saveAndFlush(new Beer("Bravo", 6.0, "IPA", "B", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers?sortBy=name").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
+    @Test
+    void getById_ReturnsUpdatedBeer_AfterCachedRead() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Test", 5.0, "Lager", "Smooth", savedManufacturer));
+        String json = """
+        {
+          "name": "Renamed",
+          "abv": 5.0,
+          "type": "Lager",
+          "manufacturerId": %d
+        }
+        """.formatted(savedManufacturer.getId());
+
+        mockMvc.perform(get("/api/beers/" + beer.getId()))
+            .andExpect(jsonPath("$.name").value("Test"));
+        mockMvc.perform(put("/api/beers/" + beer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isOk());
+        beerRepository.flush();
+
+        mockMvc.perform(get("/api/beers/" + beer.getId()))
+            .andExpect(jsonPath("$.name").value("Renamed"));
+
+        mockMvc.perform(get("/api/admin/caches").with(httpBasic("admin", "adminpass")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.beerDetailCache.hitCount").isNumber())
+            .andExpect(jsonPath("$.manufacturerDetailCache").exists());
+    }
+
+    @Test
+    void getList_ReturnsGzippedBody_WhenAccepted() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+
+        byte[] body = mockMvc.perform(get("/api/beers").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            Assertions.assertEquals("Alpha", JsonPath.read(json, "$.content[0].name"));
+        }
+    }
+
+    @Test
+    void getList_StaysWithinSqlBudget() throws Exception {
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "IPA", "B", savedManufacturer));
+
+        // A single page, so its size is the total and no count query is needed
+        mockMvc.perform(get("/api/beers?sortBy=manufacturer").with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(1));
+    }
+
+    @Test
+    void getById_StaysWithinSqlBudget() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Test", 5.0, "Lager", "Smooth", savedManufacturer));
+
+        mockMvc.perform(get("/api/beers/" + beer.getId()).with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(1));
+    }
+
+    @Test
+    void getByIds_LoadsUncachedBeersInASingleQuery() throws Exception {
+        Beer first = beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", savedManufacturer));
+        Beer second = beerRepository.save(new Beer("Bravo", 6.0, "IPA", "B", savedManufacturer));
+        Beer third = beerRepository.save(new Beer("Charlie", 7.0, "IPA", "C", savedManufacturer));
+
+        // One cached, the other two loaded together
+        mockMvc.perform(get("/api/beers/" + second.getId())).andExpect(status().isOk());
+        String ids = first.getId() + "," + second.getId() + "," + third.getId();
+
+        mockMvc.perform(get("/api/beers").param("ids", ids).with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(3))
+            .andExpect(sqlBudget.expect().selects(1));
+
+        mockMvc.perform(get("/api/beers").param("ids", ids).with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(0));
+    }
+
+    @Test
+    void createBeer_StaysWithinSqlBudget() throws Exception {
+        String json = """
+        {
+          "name": "IPA One",
+          "abv": 6.5,
+          "type": "IPA",
+          "manufacturerId": %d
+        }
+        """.formatted(savedManufacturer.getId());
+
+        // User and manufacturer
+        mockMvc.perform(post("/api/beers")
+                .with(httpBasic("admin", "adminpass"))
+                .with(sqlBudget.capture())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isCreated())
+            .andExpect(sqlBudget.expect().selects(2).inserts(1));
+    }
+
+    @Test
+    void updateBeer_StaysWithinSqlBudget() throws Exception {
+        Beer beer = beerRepository.save(new Beer("Test", 5.0, "Lager", "Smooth", savedManufacturer));
+        String json = """
+        {
+          "name": "Renamed",
+          "abv": 5.0,
+          "type": "Lager",
+          "manufacturerId": %d
+        }
+        """.formatted(savedManufacturer.getId());
+
+        // User, beer and manufacturer
+        mockMvc.perform(put("/api/beers/" + beer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .with(sqlBudget.capture())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(3).updates(1));
+    }
+
+    @Test
+    void deleteBeer_StaysWithinSqlBudget() throws Exception {
+        Beer beer = beerRepository.save(new Beer("ToDelete", 4.0, "Stout", "Dark", savedManufacturer));
+
+        // User and beer
+        mockMvc.perform(delete("/api/beers/" + beer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .with(sqlBudget.capture()))
+            .andExpect(status().isNoContent())
+            .andExpect(sqlBudget.expect().selects(2).deletes(1));
+    }
+
+    // Names of the beers of every keyset page, following the cursors from the first page to the last
+    private List<String> walk(String query) throws Exception {
+        List<String> names = new ArrayList<>();
+        String cursor = "";
+        do {
+            String body = mockMvc.perform(get("/api/beers?" + query).param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            names.addAll(JsonPath.read(body, "$.content[*].name"));
+            cursor = JsonPath.read(body, "$.nextCursor");
+        } while (cursor != null);
+        return names;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.haufe.beercatalogue.integration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.haufe.beercatalogue.config.CatalogueSeeder;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:seedtest;DB_CLOSE_DELAY=-1",
+    "beercatalogue.seed.manufacturers=5",
+    "beercatalogue.seed.beers=100",
+    "beercatalogue.seed.batch-size=16" })
+@AutoConfigureMockMvc
+@ActiveProfiles("seed")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CatalogueSeederITest {
+
+    /* Integration test for the synthetic catalogue of the seed profile. The seeder commits, so it runs against its own database */
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CatalogueSeeder seeder;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private BeerRepository beerRepository;
+    @Autowired private ManufacturerRepository manufacturerRepository;
+
+    @Test
+    void seed_AddsConfiguredCatalogue() {
+        // On top of the accounts' data created by DataInitializer
+        assertEquals(7, manufacturerRepository.count());
+        assertEquals(104, beerRepository.count());
+    }
+
+    @Test
+    void seed_KeepsBeerIdsFreeForNewBeers() {
+        // More than one block of the pooled beer sequence
+        Manufacturer manufacturer = manufacturerRepository.findAll().getFirst();
+        List<Beer> created = beerRepository.saveAllAndFlush(IntStream.range(0, 120)
+            .mapToObj(i -> new Beer("Fresh " + i, 5.0, "Lager", "", manufacturer))
+            .toList());
+
+        assertEquals(224, beerRepository.count());
+        beerRepository.deleteAllInBatch(created);
+    }
+
+    @Test
+    void seed_IsSearchable() throws Exception {
+        long stouts = jdbcTemplate.queryForObject("select count(*) from beer where lower(type) like '%stout%'", Long.class);
+
+        mockMvc.perform(get("/api/beers?type=stout"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(stouts));
+    }
+
+    @Test
+    void seed_RefreshesCachedListsAndTheirETags() throws Exception {
+        long lastBeerId = jdbcTemplate.queryForObject("select max(id) from beer", Long.class);
+        long lastManufacturerId = jdbcTemplate.queryForObject("select max(id) from manufacturer", Long.class);
+        long beers = beerRepository.count();
+        long manufacturers = manufacturerRepository.count();
+
+        String eTag = mockMvc.perform(get("/api/beers"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(beers))
+            .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/manufacturers"))
+            .andExpect(jsonPath("$.totalElements").value(manufacturers));
+
+        seeder.run();
+
+        mockMvc.perform(get("/api/beers").header("If-None-Match", eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(beers + 100));
+        mockMvc.perform(get("/api/manufacturers"))
+            .andExpect(jsonPath("$.totalElements").value(manufacturers + 5));
+
+        removeSeededAfter(lastBeerId, lastManufacturerId);
+    }
+
+    @Test
+    void seed_IsDeterministic() {
+        long lastBeerId = jdbcTemplate.queryForObject("select max(id) from beer", Long.class);
+        long lastManufacturerId = jdbcTemplate.queryForObject("select max(id) from manufacturer", Long.class);
+        String rows = "select name, abv, type, description from beer where description <> '' and id %s ? order by id";
+
+        seeder.run();
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(rows.formatted("<="), lastBeerId);
+        List<Map<String, Object>> second = jdbcTemplate.queryForList(rows.formatted(">"), lastBeerId);
+
+        assertEquals(100, second.size());
+        assertEquals(first, second);
+
+        removeSeededAfter(lastBeerId, lastManufacturerId);
+    }
+
+    // Deletes behind JPA's back like the seeder inserts, so drops what the indexes and caches hold of the rows the same way
+    private void removeSeededAfter(long lastBeerId, long lastManufacturerId) {
+        jdbcTemplate.update("delete from beer where id > ?", lastBeerId);
+        jdbcTemplate.update("delete from manufacturer where id > ?", lastManufacturerId);
+        seeder.invalidateCatalogue();
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.haufe.beercatalogue.integration;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.model.User;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+import com.haufe.beercatalogue.repository.UserRepository;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Transactional
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FetchPlanITest {
+
+    /* Integration test asserting how many SQL statements each beer endpoint issues */
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BeerRepository beerRepository;
+    @Autowired private ManufacturerRepository manufacturerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Manufacturer savedManufacturer;
+    private Beer savedBeer;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        manufacturerRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.flush();
+
+        savedManufacturer = manufacturerRepository.save(new Manufacturer("BrewCo", "Germany"));
+        Manufacturer otherManufacturer = manufacturerRepository.save(new Manufacturer("OtherBrew", "Italy"));
+        savedBeer = beerRepository.save(new Beer("IPA", 6.5, "IPA", "Hoppy and fresh", savedManufacturer));
+        beerRepository.save(new Beer("Stout", 8.0, "Stout", "Dark", otherManufacturer));
+
+        User manufacturerUser = new User();
+        manufacturerUser.setUsername("manufacturer");
+        manufacturerUser.setPassword(passwordEncoder.encode("manufacturerpass"));
+        manufacturerUser.setManufacturer(savedManufacturer);
+        manufacturerUser.setRole("ROLE_MANUFACTURER");
+        userRepository.save(manufacturerUser);
+
+        // Start every request with an empty persistence context, as a real request would
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void getList_IssuesSingleProjectionQuery() throws Exception {
+        mockMvc.perform(get("/api/beers?sortBy=manufacturer"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2));
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void getList_ServesRepeatedRequestWithoutQueries() throws Exception {
+        mockMvc.perform(get("/api/beers?sortBy=name"))
+            .andExpect(status().isOk());
+        entityManager.clear();
+        statistics().clear();
+
+        mockMvc.perform(get("/api/beers?sortBy=name&dir=ASC"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("IPA"));
+
+        assertEquals(0, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void getById_DoesNotLoadManufacturer() throws Exception {
+        mockMvc.perform(get("/api/beers/" + savedBeer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.manufacturerId").value(savedManufacturer.getId()));
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(1, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void update_ChecksOwnershipWithoutLoadingBeer() throws Exception {
+        String json = """
+        {
+          "name": "IPA Two",
+          "abv": 6.0,
+          "type": "IPA",
+          "description": "Hoppier",
+          "manufacturerId": %d
+        }
+        """.formatted(savedManufacturer.getId());
+
+        mockMvc.perform(put("/api/beers/" + savedBeer.getId())
+                .with(httpBasic("manufacturer", "manufacturerpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isOk());
+        entityManager.flush();
+
+        // authentication, ownership check, beer, manufacturer and update
+        assertEquals(5, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void delete_ChecksOwnershipWithoutLoadingBeer() throws Exception {
+        mockMvc.perform(delete("/api/beers/" + savedBeer.getId())
+                .with(httpBasic("manufacturer", "manufacturerpass")))
+            .andExpect(status().isNoContent());
+        entityManager.flush();
+
+        // authentication, ownership check, beer and delete
+        assertEquals(4, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void authentication_ReusesCachedUserLookup() throws Exception {
+        mockMvc.perform(get("/api/beers/" + savedBeer.getId())
+                .with(httpBasic("manufacturer", "manufacturerpass")))
+            .andExpect(status().isOk());
+        entityManager.clear();
+        statistics().clear();
+
+        mockMvc.perform(get("/api/beers/" + savedBeer.getId())
+                .with(httpBasic("manufacturer", "manufacturerpass")))
+            .andExpect(status().isOk());
+
+        // Neither the user nor the beer are read again, both come from their caches
+        assertEquals(0, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void bulkCreate_InsertsInBatches() throws Exception {
+        String row = "{\"name\": \"Lager\", \"abv\": 5.0, \"type\": \"Lager\", \"manufacturerId\": %d}\n"
+            .formatted(savedManufacturer.getId());
+
+        mockMvc.perform(post("/api/beers/bulk")
+                .with(httpBasic("manufacturer", "manufacturerpass"))
+                .contentType("application/x-ndjson")
+                .content(row.repeat(4)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(4));
+
+        // authentication, manufacturer check and one insert per batch of 2, ids come from the pooled sequence
+        assertEquals(4, statistics().getEntityInsertCount());
+        assertEquals(4, statistics().getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getById_RevalidatesFromVersionAlone() throws Exception {
+        mockMvc.perform(get("/api/beers/" + savedBeer.getId()).header("If-None-Match", "\"" + savedBeer.getVersion() + "\""))
+            .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void getById_ServesRepeatedReadsFromCache() throws Exception {
+        mockMvc.perform(get("/api/beers/" + savedBeer.getId()))
+            .andExpect(status().isOk());
+        String eTag = mockMvc.perform(get("/api/beers/" + savedBeer.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/beers/" + savedBeer.getId()).header("If-None-Match", eTag))
+            .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.haufe.beercatalogue.integration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.index.BeerFullTextIndex;
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+import com.haufe.beercatalogue.service.BeerService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexVisibilityITest {
+
+    /* Integration test for what the in-memory indexes show of writes that are not committed yet.
+       Not transactional, each test commits or rolls back its own transactions and cleans up */
+
+    @Autowired private BeerService beerService;
+    @Autowired private BeerRepository beerRepository;
+    @Autowired private ManufacturerRepository manufacturerRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private BeerFullTextIndex fullTextIndex;
+
+    private TransactionTemplate transaction;
+    private Manufacturer manufacturer;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        manufacturer = manufacturerRepository.save(new Manufacturer("Overlay Brewing", "DE"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        beerRepository.deleteAll(beerRepository.findAll().stream().filter(beer -> beer.getName().startsWith("Zymurgy")).toList());
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void uncommittedWrites_AreOnlyVisibleToTheirTransaction() {
+        transaction.executeWithoutResult(status -> {
+            beerRepository.saveAndFlush(new Beer("Zymurgy Lager", 6.6, "Lager", "Brewed in a transaction", manufacturer));
+
+            assertEquals(1, beerService.search("zymurgy", 0, 10).getTotalElements());
+            assertEquals(1, beerService.suggest("zymu", 10).size());
+            assertEquals(1, beerService.getList(0, 10, "abv", "asc", null, null, null, 6.6, 6.6, null).getTotalElements());
+
+            // Other requests only see what is committed
+            assertEquals(0, elsewhere(() -> beerService.search("zymurgy", 0, 10).getTotalElements()));
+            assertEquals(0, elsewhere(() -> beerService.suggest("zymu", 10).size()));
+            assertEquals(0, elsewhere(() -> beerService.getList(0, 10, "abv", "asc", "zymurgy", null, null, 6.6, 6.6, null).getTotalElements()));
+
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, beerService.search("zymurgy", 0, 10).getTotalElements());
+        assertEquals(0, beerService.suggest("zymu", 10).size());
+    }
+
+    @Test
+    void committedWrites_AreVisibleToEveryone() {
+        transaction.executeWithoutResult(status ->
+            beerRepository.save(new Beer("Zymurgy Stout", 7.7, "Stout", "Brewed in a transaction", manufacturer)));
+
+        assertEquals(1, elsewhere(() -> beerService.search("zymurgy", 0, 10).getTotalElements()));
+        assertEquals(1, elsewhere(() -> beerService.suggest("zymu", 10).size()));
+        assertEquals(1, elsewhere(() -> beerService.getList(0, 10, "abv", "asc", null, null, null, 7.7, 7.7, null).getTotalElements()));
+    }
+
+    @Test
+    void beersSavedWithAManufacturerProxy_AreFoundByItsName() {
+        // Loaded while the manufacturer has no beers, then given some the way the bulk import does
+        fullTextIndex.rebuild();
+        transaction.executeWithoutResult(status -> beerRepository.save(
+            new Beer("Zymurgy Ale", 5.5, "Ale", "Brewed in a transaction", manufacturerRepository.getReferenceById(manufacturer.getId()))));
+
+        assertEquals(1, elsewhere(() -> beerService.search("overlay", 0, 10).getTotalElements()));
+    }
+
+    // Runs the read on another thread, outside of the current transaction
+    private static <T> T elsewhere(Supplier<T> read) {
+        return CompletableFuture.supplyAsync(read).join();
+    }
+
+}
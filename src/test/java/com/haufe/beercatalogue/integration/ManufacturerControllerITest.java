@@ -10,14 +10,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 
 import com.haufe.beercatalogue.model.Manufacturer;
@@ -25,6 +28,9 @@ import com.haufe.beercatalogue.repository.BeerRepository;
 import com.haufe.beercatalogue.repository.ManufacturerRepository;
 import com.haufe.beercatalogue.repository.UserRepository;
 import com.haufe.beercatalogue.model.User;
+import com.haufe.beercatalogue.support.SqlBudget;
+
+import jakarta.persistence.EntityManager;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -39,18 +45,24 @@ public class ManufacturerControllerITest {
     @Autowired private ManufacturerRepository manufacturerRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private SqlBudget sqlBudget;
 
     @BeforeEach
     void cleanDb() {
         beerRepository.deleteAll();
         manufacturerRepository.deleteAll();
         userRepository.deleteAll();
+        userRepository.flush();
 
         User admin = new User();
         admin.setUsername("admin");
         admin.setPassword(passwordEncoder.encode("adminpass"));
         admin.setRole("ROLE_ADMIN");
         userRepository.save(admin);
+
+        sqlBudget = new SqlBudget(entityManager);
     }
 
     @Test
@@ -80,6 +92,31 @@ public class ManufacturerControllerITest {
             .andExpect(jsonPath("$.content.length()").value(2));
     }
 
+    @Test
+    void suggest_ReturnsManufacturersWithAWordStartingWithPrefix() throws Exception {
+        manufacturerRepository.save(new Manufacturer("Brew Dog", "UK"));
+        manufacturerRepository.save(new Manufacturer("Dogfish Head", "US"));
+        manufacturerRepository.save(new Manufacturer("Weihenstephan", "Germany"));
+
+        mockMvc.perform(get("/api/manufacturers/suggest?prefix=dog"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].name").value("Brew Dog"))
+            .andExpect(jsonPath("$[1].name").value("Dogfish Head"));
+
+        mockMvc.perform(post("/api/manufacturers")
+                .with(httpBasic("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"name": "Dogma Ales", "country": "Italy"}
+                    """))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/manufacturers/suggest?prefix=dogm"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].name").value("Dogma Ales"));
+    }
+
     @Test
     void getById_ReturnsDetails() throws Exception {
         Manufacturer m = manufacturerRepository.save(new Manufacturer("BrewTeam", "Spain"));
@@ -89,6 +126,23 @@ public class ManufacturerControllerITest {
             .andExpect(jsonPath("$.country").value("Spain"));
     }
 
+    @Test
+    void getByIds_ReturnsManufacturersInRequestedOrder_AndReportsMissingIds() throws Exception {
+        Manufacturer first = manufacturerRepository.save(new Manufacturer("B1", "US"));
+        Manufacturer second = manufacturerRepository.save(new Manufacturer("B2", "UK"));
+        long missing = second.getId() + 1000;
+
+        mockMvc.perform(get("/api/manufacturers").param("ids", missing + "," + second.getId() + "," + first.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].name").value("B2"))
+            .andExpect(jsonPath("$.content[1].name").value("B1"))
+            .andExpect(jsonPath("$.missing[0]").value(missing));
+
+        mockMvc.perform(get("/api/manufacturers").param("ids", ""))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void delete_RemovesManufacturer() throws Exception {
         Manufacturer m = manufacturerRepository.save(new Manufacturer("ToDelete", "France"));
@@ -130,4 +184,103 @@ public class ManufacturerControllerITest {
                 .content(json))
             .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+    @Test
+    void getById_ReturnsNotModified_WhenModifiedSinceMatches() throws Exception {
+        Manufacturer manufacturer = manufacturerRepository.save(new Manufacturer("B1", "US"));
+
+        String lastModified = mockMvc.perform(get("/api/manufacturers/" + manufacturer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/manufacturers/" + manufacturer.getId()).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getList_StaysWithinSqlBudget() throws Exception {
+        manufacturerRepository.save(new Manufacturer("B1", "US"));
+        manufacturerRepository.save(new Manufacturer("B2", "UK"));
+
+        // A single page, so no count query
+        mockMvc.perform(get("/api/manufacturers").with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(1));
+    }
+
+    @Test
+    void getById_StaysWithinSqlBudget() throws Exception {
+        Manufacturer manufacturer = manufacturerRepository.save(new Manufacturer("BrewTeam", "Spain"));
+
+        mockMvc.perform(get("/api/manufacturers/" + manufacturer.getId()).with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(1));
+    }
+
+    @Test
+    void getByIds_StaysWithinSqlBudget() throws Exception {
+        Manufacturer first = manufacturerRepository.save(new Manufacturer("B1", "US"));
+        Manufacturer second = manufacturerRepository.save(new Manufacturer("B2", "UK"));
+        String ids = first.getId() + "," + second.getId();
+
+        mockMvc.perform(get("/api/manufacturers").param("ids", ids).with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(1));
+
+        mockMvc.perform(get("/api/manufacturers").param("ids", ids).with(sqlBudget.capture()))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(0));
+    }
+
+    @Test
+    void createManufacturer_StaysWithinSqlBudget() throws Exception {
+        String json = """
+        {
+          "name": "CraftHaus",
+          "country": "Austria"
+        }
+        """;
+
+        // User, the id comes from the identity column
+        mockMvc.perform(post("/api/manufacturers")
+                .with(httpBasic("admin", "adminpass"))
+                .with(sqlBudget.capture())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isCreated())
+            .andExpect(sqlBudget.expect().selects(1).inserts(1));
+    }
+
+    @Test
+    void updateManufacturer_StaysWithinSqlBudget() throws Exception {
+        Manufacturer manufacturer = manufacturerRepository.save(new Manufacturer("BrewTeam", "Spain"));
+        String json = """
+        {
+          "name": "BrewTeam",
+          "country": "Portugal"
+        }
+        """;
+
+        // User and manufacturer
+        mockMvc.perform(put("/api/manufacturers/" + manufacturer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .with(sqlBudget.capture())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isOk())
+            .andExpect(sqlBudget.expect().selects(2).updates(1));
+    }
+
+    @Test
+    void deleteManufacturer_StaysWithinSqlBudget() throws Exception {
+        Manufacturer manufacturer = manufacturerRepository.save(new Manufacturer("ToDelete", "France"));
+
+        // User and manufacturer
+        mockMvc.perform(delete("/api/manufacturers/" + manufacturer.getId())
+                .with(httpBasic("admin", "adminpass"))
+                .with(sqlBudget.capture()))
+            .andExpect(status().isNoContent())
+            .andExpect(sqlBudget.expect().selects(2).deletes(1));
+    }
+
+}
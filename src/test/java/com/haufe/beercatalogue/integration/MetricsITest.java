@@ -0,0 +1,78 @@
+package com.haufe.beercatalogue.integration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClient;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MetricsITest {
+
+    /* Integration test for the Prometheus scrape endpoint, served on the management port as in production.
+       The API is called through MockMvc, the scrapes go over HTTP to the management server */
+
+    @Autowired private MockMvc mockMvc;
+    @LocalManagementPort private int managementPort;
+
+    @Test
+    void prometheus_IsServedOnTheManagementPort_WithoutCredentials() {
+        ResponseEntity<String> scrape = management().get().uri("/actuator/prometheus").retrieve().toEntity(String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+    }
+
+    @Test
+    void prometheus_ExposesEndpointAndServiceTimers() throws Exception {
+        mockMvc.perform(get("/api/beers?sortBy=name"))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/beers/999999").with(httpBasic("brewery1", "brewpass")))
+            .andExpect(status().isForbidden());
+
+        String metrics = scrape();
+        assertThat(metrics, containsString("http_server_requests_seconds_bucket{"));
+        assertThat(metrics, containsString("uri=\"/api/beers\""));
+        assertThat(metrics, containsString("beercatalogue_beers_list_seconds_bucket{"));
+        assertThat(metrics, containsString("beercatalogue_authorization_seconds"));
+    }
+
+    @Test
+    void prometheus_ExposesPoolHibernateAndCacheMetrics() {
+        String metrics = scrape();
+        assertThat(metrics, containsString("hikaricp_connections_active"));
+        assertThat(metrics, containsString("hikaricp_connections_acquire_seconds"));
+        assertThat(metrics, containsString("hibernate_query_executions_total"));
+        assertThat(metrics, containsString("hibernate_entities_loads_total"));
+        assertThat(metrics, containsString("hibernate_cache_query_requests_total"));
+        assertThat(metrics, containsString("cache_gets_total{cache=\"beerDetailCache\""));
+        assertThat(metrics, containsString("cache=\"userCache\""));
+    }
+
+    private String scrape() {
+        return management().get().uri("/actuator/prometheus").retrieve().body(String.class);
+    }
+
+    private RestClient management() {
+        return RestClient.create("http://localhost:" + managementPort);
+    }
+
+}
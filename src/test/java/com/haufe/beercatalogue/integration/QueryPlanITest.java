@@ -0,0 +1,132 @@
+package com.haufe.beercatalogue.integration;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haufe.beercatalogue.model.Beer;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.BeerRepository;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+import com.haufe.beercatalogue.repository.UserRepository;
+import com.haufe.beercatalogue.service.BeerService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Transactional
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanITest {
+
+    /* Integration test checking with EXPLAIN that the SQL the application issues is served by the
+       indexes of the migrations. The statements are captured from the real repository calls by the
+       query statistics of H2 */
+
+    @Autowired private BeerService beerService;
+    @Autowired private BeerRepository beerRepository;
+    @Autowired private ManufacturerRepository manufacturerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Manufacturer manufacturer;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        manufacturer = manufacturerRepository.save(new Manufacturer("BrewCo", "Germany"));
+        beerRepository.save(new Beer("Alpha", 5.0, "IPA", "A", manufacturer));
+        beerRepository.save(new Beer("Bravo", 6.0, "Stout", "B", manufacturer));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByUsername_UsesUniqueUsernameIndex() {
+        String plan = plan(() -> userRepository.findByUsername("admin"), "admin");
+
+        assertTrue(plan.contains("UX_APP_USER_USERNAME"), plan);
+    }
+
+    @Test
+    void usernames_AreUnique() {
+        Integer unique = jdbcTemplate.queryForObject(
+            "select count(*) from information_schema.indexes where index_name = 'UX_APP_USER_USERNAME' and index_type_name = 'UNIQUE INDEX'",
+            Integer.class);
+
+        assertEquals(1, unique);
+    }
+
+    @Test
+    void getList_SortedByName_ReadsNameIndexInOrder() {
+        String plan = plan(() -> beerService.getSlice(1, 10, "name", "asc", null, null, null, null, null, null), 10, 11);
+
+        assertTrue(plan.contains("IDX_BEER_NAME"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void getListAfter_SortedByType_SeeksTypeIndex() {
+        String plan = plan(() -> beerService.getListAfter("", 10, "type", "asc", null, null, null, null, null, null), 11);
+
+        assertTrue(plan.contains("IDX_BEER_TYPE"), plan);
+    }
+
+    @Test
+    void getList_ByManufacturer_UsesForeignKeyIndex() {
+        String plan = plan(() -> beerService.getSlice(1, 10, null, "asc", null, null, null, null, null, manufacturer.getId()),
+            manufacturer.getId(), 10, 11);
+
+        assertTrue(plan.contains("FK_BEER_MANUFACTURER_INDEX"), plan);
+    }
+
+    @Test
+    void getList_ByAbvRange_UsesAbvIndex() {
+        String plan = plan(() -> beerService.getSlice(1, 10, null, "asc", null, null, null, 5.0, 6.0, null), 5.0, 6.0, 10, 11);
+
+        assertTrue(plan.contains("IDX_BEER_ABV"), plan);
+    }
+
+    @Test
+    void getList_ByShortName_MatchesGeneratedLowercaseColumn() {
+        // Too short for the trigram index, so it falls back to LIKE
+        String plan = plan(() -> beerService.getSlice(1, 10, null, "asc", "al", null, null, null, null, null), "%al%", 10, 11);
+
+        assertTrue(plan.contains("\"NAME_LOWER\" LIKE"), plan);
+        assertFalse(plan.contains("LOWER(\"NAME\")"), plan);
+    }
+
+    // Runs the query, then explains the single select it issued with the given parameters
+    private String plan(Runnable query, Object... parameters) {
+        // Turning the statistics off forgets the statements recorded before
+        jdbcTemplate.execute("set query_statistics false");
+        jdbcTemplate.execute("set query_statistics true");
+        List<String> selects;
+        try {
+            query.run();
+            selects = jdbcTemplate.queryForList("""
+                select sql_statement from information_schema.query_statistics
+                where lower(sql_statement) like 'select%' and lower(sql_statement) not like '%information_schema%'
+                """, String.class);
+        } finally {
+            jdbcTemplate.execute("set query_statistics false");
+        }
+
+        assertEquals(1, selects.size(), selects::toString);
+        return jdbcTemplate.queryForObject("explain " + selects.getFirst(), String.class, parameters);
+    }
+
+}
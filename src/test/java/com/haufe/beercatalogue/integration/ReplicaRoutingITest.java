@@ -0,0 +1,172 @@
+package com.haufe.beercatalogue.integration;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.haufe.beercatalogue.datasource.ReplicaDataSource;
+import com.haufe.beercatalogue.dto.ManufacturerCreateDTO;
+import com.haufe.beercatalogue.dto.ManufacturerDetailDTO;
+import com.haufe.beercatalogue.model.Manufacturer;
+import com.haufe.beercatalogue.repository.ManufacturerRepository;
+import com.haufe.beercatalogue.service.ManufacturerService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.connection-timeout=250",
+    "beercatalogue.datasource.replica-max-lag=500ms"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingITest {
+
+    /* Integration test for the read replica routing, with the primary and two replicas as separate
+       in-memory H2 databases. The replicas get the schema and a manufacturer of their own before the
+       application starts, so where a read was served is visible from its result. A third replica
+       never exists and has to be skipped. Reads go to the primary for a while after each write, the
+       tests wait for the replicas to be used again first */
+
+    private static final List<String> REPLICAS = List.of(
+        "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1",
+        "jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1");
+    private static final String MISSING_REPLICA = "jdbc:h2:mem:routing-replica-missing;IFEXISTS=TRUE";
+    private static final long REPLICA_MANUFACTURER_ID = 1000;
+
+    @Autowired private ManufacturerService manufacturerService;
+    @Autowired private ManufacturerRepository manufacturerRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private HikariDataSource primaryDataSource;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ReplicaDataSource replicaDataSource;
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            Flyway.configure().dataSource(REPLICAS.get(i), "sa", "").load().migrate();
+            replica(i).update("insert into manufacturer (id, name, country, version) values (?, ?, 'Replica', 0)",
+                REPLICA_MANUFACTURER_ID, "Replica " + (i + 1));
+        }
+        registry.add("beercatalogue.datasource.replicas", () -> String.join(",", REPLICAS) + "," + MISSING_REPLICA);
+    }
+
+    @BeforeEach
+    void waitForReplicas() throws InterruptedException {
+        while (replicaDataSource.readsFromPrimary())
+            Thread.sleep(20);
+    }
+
+    @Test
+    void readOnlyTransactions_AreSpreadOverHealthyReplicas() {
+        TransactionTemplate readOnly = readOnlyTransaction();
+        Set<String> servedBy = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            servedBy.add(readOnly.execute(status -> manufacturerRepository.findById(REPLICA_MANUFACTURER_ID)
+                .map(Manufacturer::getName)
+                .orElse("primary")));
+        }
+
+        assertEquals(Set.of("Replica 1", "Replica 2"), servedBy);
+    }
+
+    @Test
+    void readOnlyServiceMethods_ReadFromReplicas() {
+        List<String> names = manufacturerService.getSlice(PageRequest.of(0, 10)).map(ManufacturerDetailDTO::getName).toList();
+
+        assertEquals(1, names.size(), names::toString);
+        assertTrue(names.getFirst().startsWith("Replica "), names::toString);
+    }
+
+    @Test
+    void writes_GoToPrimary() {
+        manufacturerService.create(new ManufacturerCreateDTO("Written Brewery", "DE"));
+
+        String count = "select count(*) from manufacturer where name = 'Written Brewery'";
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject(count, Integer.class));
+        for (int i = 0; i < REPLICAS.size(); i++)
+            assertEquals(0, replica(i).queryForObject(count, Integer.class));
+    }
+
+    @Test
+    void readsRightAfterAWrite_AreServedByPrimary() throws Exception {
+        ManufacturerDetailDTO written = manufacturerService.create(new ManufacturerCreateDTO("Fresh Brewery", "DE"));
+
+        // The replicas don't have it, reading them would cache a miss and an outdated list
+        assertTrue(replicaDataSource.readsFromPrimary());
+        assertTrue(manufacturerService.getVersion(written.getId()).isPresent());
+        assertEquals("Fresh Brewery", manufacturerService.getById(written.getId()).getName());
+        assertTrue(manufacturerService.getSlice(PageRequest.of(0, 10)).map(ManufacturerDetailDTO::getName).toList()
+            .contains("Fresh Brewery"));
+
+        // Once the lag has passed the replicas serve again, these ones never catch up
+        waitForReplicas();
+        assertEquals(false, readOnlyTransaction().execute(status -> manufacturerRepository.existsById(written.getId())));
+    }
+
+    @Test
+    void readOnlyTransactions_AreNotFlushed() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        readOnlyTransaction().executeWithoutResult(status -> manufacturerRepository.findById(REPLICA_MANUFACTURER_ID)
+            .orElseThrow()
+            .setName("Changed"));
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            assertEquals("Replica " + (i + 1), replica(i).queryForObject(
+                "select name from manufacturer where id = ?", String.class, REPLICA_MANUFACTURER_ID));
+        }
+    }
+
+    @Test
+    void withoutHealthyReplicas_ReadsFallBackToPrimary() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(MISSING_REPLICA);
+        config.setUsername("sa");
+        config.setConnectionTimeout(250);
+        config.setInitializationFailTimeout(-1);
+
+        try (ReplicaDataSource replicas = new ReplicaDataSource(primaryDataSource, List.of(new HikariDataSource(config)), Duration.ofMinutes(1), Duration.ZERO)) {
+            try (Connection connection = replicas.getConnection()) {
+                assertEquals("jdbc:h2:mem:routing-primary", connection.getMetaData().getURL());
+            }
+            assertEquals(0, replicas.healthyReplicas());
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static JdbcTemplate replica(int index) {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICAS.get(index), "sa", ""));
+    }
+
+}
@@ -7,6 +7,8 @@ import com.haufe.beercatalogue.repository.BeerRepository;
 import com.haufe.beercatalogue.repository.ManufacturerRepository;
 import com.haufe.beercatalogue.model.Beer;
 
+import com.jayway.jsonpath.JsonPath;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -18,6 +20,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.Base64;
+
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -49,6 +53,7 @@ class SecurityITest {
         beerRepository.deleteAll();
         manufacturerRepository.deleteAll();
         userRepository.deleteAll();
+        userRepository.flush();
 
         savedManufacturer = manufacturerRepository.save(new Manufacturer("BrewCo", "Germany"));
 
@@ -64,6 +69,14 @@ class SecurityITest {
         userRepository.save(manufacturerUser);
     }
 
+    @Test
+    void prometheus_OnTheApplicationPort_IsForAdminsOnly() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("manufacturer", "manufacturerpass")))
+            .andExpect(status().isForbidden());
+    }
+
     @Test
     void anonymousUser_canAccessBeerGet() throws Exception {
         mockMvc.perform(get("/api/beers")
@@ -174,4 +187,64 @@ class SecurityITest {
             .andExpect(status().isForbidden());
     }
 
+    @Test
+    void manufacturer_canPostWithToken() throws Exception {
+        String token = login("manufacturer", "manufacturerpass");
+        String json = """
+        {
+          "name": "Token IPA",
+          "abv": 6.5,
+          "type": "IPA",
+          "description": "Hoppy and fresh",
+          "manufacturerId": %d
+        }
+        """.formatted(savedManufacturer.getId());
+
+        mockMvc.perform(post("/api/beers")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.name").value("Token IPA"));
+    }
+
+    @Test
+    void manufacturer_cannotDeleteOtherManufacturerBeerWithToken() throws Exception {
+        String token = login("manufacturer", "manufacturerpass");
+
+        mockMvc.perform(delete("/api/beers/%d".formatted(altBeer.getId()))
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void login_ReturnsUnauthorized_WhenPasswordIsWrong() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"manufacturer\", \"password\": \"wrong\"}"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tamperedToken_IsRejected() throws Exception {
+        String token = login("manufacturer", "manufacturerpass");
+        String[] parts = token.split("\\.");
+        String forgedClaims = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            "{\"sub\":\"manufacturer\",\"uid\":1,\"role\":\"ROLE_ADMIN\",\"mid\":null,\"exp\":9999999999}".getBytes());
+
+        mockMvc.perform(delete("/api/beers/%d".formatted(altBeer.getId()))
+                .header("Authorization", "Bearer " + parts[0] + "." + forgedClaims + "." + parts[2]))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"%s\", \"password\": \"%s\"}".formatted(username, password)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tokenType").value("Bearer"))
+            .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.accessToken");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.haufe.beercatalogue.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class SqlBudget {
+
+    /* Asserts how many SQL statements a single MockMvc request issues, so a change that adds
+       queries to an endpoint fails the build. Counted from the Hibernate statistics like the fetch
+       plan tests: writes are the entities inserted, updated and deleted, selects the other statements
+       Hibernate prepared. A JDBC batch counts once, so budgets are meant for requests writing single
+       entities, and the beer sequence call the pooled ids need once per block would count as a select.
+       Usage:
+
+           mockMvc.perform(get("/api/beers/" + id).with(sqlBudget.capture()))
+               .andExpect(sqlBudget.expect().selects(1));
+     */
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public SqlBudget(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Starts counting for the request. The test's pending writes are flushed and its persistence
+     * context cleared first, so the request starts empty as a real one would.
+     */
+    public RequestPostProcessor capture() {
+        return request -> {
+            entityManager.flush();
+            entityManager.clear();
+            statistics.clear();
+            return request;
+        };
+    }
+
+    /**
+     * Returns a matcher expecting exactly the given statements and no others. Writes the request
+     * left to be flushed at commit are flushed before counting.
+     */
+    public Expectation expect() {
+        return new Expectation();
+    }
+
+    public final class Expectation implements ResultMatcher {
+
+        private long selects;
+        private long inserts;
+        private long updates;
+        private long deletes;
+
+        public Expectation selects(int count) {
+            selects = count;
+            return this;
+        }
+
+        public Expectation inserts(int count) {
+            inserts = count;
+            return this;
+        }
+
+        public Expectation updates(int count) {
+            updates = count;
+            return this;
+        }
+
+        public Expectation deletes(int count) {
+            deletes = count;
+            return this;
+        }
+
+        @Override
+        public void match(MvcResult result) {
+            entityManager.flush();
+
+            Map<String, Long> expected = counts(selects, inserts, updates, deletes);
+            long writes = statistics.getEntityInsertCount() + statistics.getEntityUpdateCount() + statistics.getEntityDeleteCount();
+            Map<String, Long> actual = counts(statistics.getPrepareStatementCount() - writes,
+                statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount());
+            if (actual.equals(expected))
+                return;
+
+            fail("SQL budget of " + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                + " not met, expected " + expected + " but was " + actual + ", queries: " + String.join(", ", statistics.getQueries()));
+        }
+
+        private static Map<String, Long> counts(long selects, long inserts, long updates, long deletes) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("selects", selects);
+            counts.put("inserts", inserts);
+            counts.put("updates", updates);
+            counts.put("deletes", deletes);
+            return counts;
+        }
+
+    }
+
+}
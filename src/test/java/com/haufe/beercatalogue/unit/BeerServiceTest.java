@@ -2,7 +2,8 @@ package com.haufe.beercatalogue.unit;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -30,6 +32,11 @@ import com.haufe.beercatalogue.service.BeerService;
 import com.haufe.beercatalogue.exception.ResourceNotFoundException;
 import com.haufe.beercatalogue.exception.BadRequestException;
 import com.haufe.beercatalogue.service.BeerAuthorizationService;
+import com.haufe.beercatalogue.index.BeerSearchIndex;
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.DetailCache;
+
+import java.time.Duration;
 
 import java.util.List;
 import java.util.Optional;
@@ -49,6 +56,15 @@ public class BeerServiceTest {
     @Mock
     private BeerMapper mapper;
 
+    @Mock
+    private BeerSearchIndex searchIndex;
+
+    @Mock
+    private CountCache beerCountCache;
+
+    @Spy
+    private DetailCache<Beer, BeerDetailDTO> beerDetailCache = new DetailCache<>(Beer.class, Beer::getId, true, 10, Duration.ofMinutes(1));
+
     @InjectMocks
     private BeerService beerService;
 
@@ -78,6 +94,18 @@ public class BeerServiceTest {
         assertEquals("Punk IPA", result.getName());
     }
 
+    @Test
+    void getById_LoadsBeerOnlyOnce() {
+        when(beerRepository.findById(1L)).thenReturn(Optional.of(beer));
+        when(mapper.toDetail(beer)).thenReturn(detailDTO);
+
+        beerService.getById(1L);
+        BeerDetailDTO result = beerService.getById(1L);
+
+        assertEquals("Punk IPA", result.getName());
+        verify(beerRepository, times(1)).findById(1L);
+    }
+
     @Test
     void getById_ThrowsResourceNotFound_WhenBeerNotFound() {
         when(beerRepository.findById(99L)).thenReturn(Optional.empty());
@@ -142,47 +170,32 @@ public class BeerServiceTest {
 
     @Test
     void findAllSorted_ReturnsBeersSortedList() {
-        Beer beerA = new Beer("Alpha", 5.0, "IPA", "Light", beer.getManufacturer());
-        Beer beerB = new Beer("Bravo", 6.0, "Stout", "Strong", beer.getManufacturer());
-        beerA.setId(1L);
-        beerB.setId(2L);
-
-        List<Beer> sortedBeers = List.of(beerA, beerB);
+        List<BeerSummaryDTO> sortedBeers = List.of(new BeerSummaryDTO(1L, "Alpha"), new BeerSummaryDTO(2L, "Bravo"));
         Pageable pageable = PageRequest.of(0, 50, Sort.by(Sort.Direction.ASC, "name"));
-        Page<Beer> beerPage = new PageImpl<>(sortedBeers, pageable, sortedBeers.size());
+        Slice<BeerSummaryDTO> beerSlice = new SliceImpl<>(sortedBeers, pageable, false);
 
         Specification<Beer> spec = null;
-        when(beerRepository.findAll(spec, pageable)).thenReturn(beerPage);
-
-        when(mapper.toSummary(beerA)).thenReturn(new BeerSummaryDTO(1L, "Alpha"));
-        when(mapper.toSummary(beerB)).thenReturn(new BeerSummaryDTO(2L, "Bravo"));
+        when(beerRepository.findSummaries(spec, pageable)).thenReturn(beerSlice);
 
-        Page<BeerSummaryDTO> resultPage = beerService.getList(0, 50, "name", "asc", null, null, null, null);
+        Page<BeerSummaryDTO> resultPage = beerService.getList(0, 50, "name", "asc", null, null, null, null, null, null);
         List<BeerSummaryDTO> result = resultPage.getContent();
 
         assertEquals(2, result.size());
         assertEquals("Alpha", result.get(0).getName());
         assertEquals("Bravo", result.get(1).getName());
+        verifyNoInteractions(mapper);
     }
 
     @Test
     void findAllSorted_ReturnsBeersSortedByAbvDesc() {
-        Beer beerA = new Beer("Alpha", 5.0, "IPA", "Light", beer.getManufacturer());
-        Beer beerB = new Beer("Bravo", 6.0, "Stout", "Strong", beer.getManufacturer());
-        beerA.setId(1L);
-        beerB.setId(2L);
-
-        List<Beer> sortedBeers = List.of(beerB, beerA);
+        List<BeerSummaryDTO> sortedBeers = List.of(new BeerSummaryDTO(2L, "Bravo"), new BeerSummaryDTO(1L, "Alpha"));
         Pageable pageable = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "abv"));
-        Page<Beer> beerPage = new PageImpl<>(sortedBeers, pageable, sortedBeers.size());
+        Slice<BeerSummaryDTO> beerSlice = new SliceImpl<>(sortedBeers, pageable, false);
 
         Specification<Beer> spec = null;
-        when(beerRepository.findAll(spec, pageable)).thenReturn(beerPage);
-
-        when(mapper.toSummary(beerA)).thenReturn(new BeerSummaryDTO(1L, "Alpha"));
-        when(mapper.toSummary(beerB)).thenReturn(new BeerSummaryDTO(2L, "Bravo"));
+        when(beerRepository.findSummaries(spec, pageable)).thenReturn(beerSlice);
 
-        Page<BeerSummaryDTO> resultPage = beerService.getList(0, 50, "abv", "desc", null, null, null, null);
+        Page<BeerSummaryDTO> resultPage = beerService.getList(0, 50, "abv", "desc", null, null, null, null, null, null);
         List<BeerSummaryDTO> result = resultPage.getContent();
 
         assertEquals(2, result.size());
@@ -196,7 +209,7 @@ public class BeerServiceTest {
 
         BadRequestException ex = assertThrows(
             BadRequestException.class,
-            () -> beerService.getList(0, 50, invalidSort, "asc", null, null, null, null)
+            () -> beerService.getList(0, 50, invalidSort, "asc", null, null, null, null, null, null)
         );
 
         assertEquals("Invalid sort field: unknown", ex.getMessage());
@@ -208,7 +221,7 @@ public class BeerServiceTest {
 
         BadRequestException ex = assertThrows(
             BadRequestException.class,
-            () -> beerService.getList(0, 50, "name", invalidDirection, null, null, null, null)
+            () -> beerService.getList(0, 50, "name", invalidDirection, null, null, null, null, null, null)
         );
 
         assertEquals("Invalid sort direction: upward", ex.getMessage());
@@ -217,30 +230,49 @@ public class BeerServiceTest {
     @Test
     @SuppressWarnings("unchecked")
     void getList_WithFilters_ReturnsFilteredAndSortedBeers() {
-        Beer beerA = new Beer("Alpha", 5.0, "IPA", "Light", beer.getManufacturer());
-        Beer beerB = new Beer("Bravo", 6.0, "Stout", "Strong", beer.getManufacturer());
-        beerA.setId(1L);
-        beerB.setId(2L);
-
-        List<Beer> beers = List.of(beerA, beerB);
+        List<BeerSummaryDTO> beers = List.of(new BeerSummaryDTO(1L, "Alpha"), new BeerSummaryDTO(2L, "Bravo"));
         Pageable pageable = PageRequest.of(0, 50, Sort.by(Sort.Direction.ASC, "name"));
-        Page<Beer> beerPage = new PageImpl<>(beers, pageable, beers.size());
-
-        when(beerRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(beerPage);
+        Slice<BeerSummaryDTO> beerSlice = new SliceImpl<>(beers, pageable, false);
 
-        when(mapper.toSummary(beerA)).thenReturn(new BeerSummaryDTO(1L, "Alpha"));
-        when(mapper.toSummary(beerB)).thenReturn(new BeerSummaryDTO(2L, "Bravo"));
+        when(beerRepository.findSummaries(any(Specification.class), eq(pageable))).thenReturn(beerSlice);
 
-        Page<BeerSummaryDTO> result = beerService.getList(0, 50, "name", "asc", "alp", null, null, null);
+        Page<BeerSummaryDTO> result = beerService.getList(0, 50, "name", "asc", "alp", null, null, null, null, null);
 
         assertEquals(2, result.getContent().size());
         assertEquals("Alpha", result.getContent().get(0).getName());
         assertEquals("Bravo", result.getContent().get(1).getName());
 
         ArgumentCaptor<Specification<Beer>> specCaptor = ArgumentCaptor.forClass(Specification.class);
-        verify(beerRepository).findAll(specCaptor.capture(), eq(pageable));
+        verify(beerRepository).findSummaries(specCaptor.capture(), eq(pageable));
         Specification<Beer> capturedSpec = specCaptor.getValue();
         assertNotNull(capturedSpec);
     }
 
+    @Test
+    void getList_UsesCachedCount_WhenTotalIsNotKnownFromContent() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Specification<Beer> spec = null;
+        when(beerRepository.findSummaries(spec, pageable))
+            .thenReturn(new SliceImpl<>(List.of(new BeerSummaryDTO(1L, "Alpha")), pageable, true));
+        when(beerCountCache.get(any(), any())).thenReturn(7L);
+
+        Page<BeerSummaryDTO> result = beerService.getList(0, 1, null, "asc", null, null, null, null, null, null);
+
+        assertEquals(7L, result.getTotalElements());
+        verify(beerRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getSlice_DoesNotCount() {
+        Pageable pageable = PageRequest.of(0, 50);
+        Specification<Beer> spec = null;
+        when(beerRepository.findSummaries(spec, pageable))
+            .thenReturn(new SliceImpl<>(List.of(new BeerSummaryDTO(1L, "Punk IPA")), pageable, false));
+
+        Slice<BeerSummaryDTO> result = beerService.getSlice(0, 50, null, "asc", null, null, null, null, null, null);
+
+        assertFalse(result.hasNext());
+        verifyNoInteractions(beerCountCache);
+    }
+
 }
@@ -0,0 +1,97 @@
+package com.haufe.beercatalogue.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.haufe.beercatalogue.index.FullTextIndex;
+import com.haufe.beercatalogue.index.FullTextIndex.Field;
+import com.haufe.beercatalogue.index.FullTextIndex.Hit;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class FullTextIndexTest {
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FullTextIndex();
+        index.put(1L, List.of(new Field("Punk IPA", 3), new Field("Tropical fruit and a bitter finish", 1)));
+        index.put(2L, List.of(new Field("Hazy Jane", 3), new Field("Juicy and hazy, brewed with tropical hops", 1)));
+        index.put(3L, List.of(new Field("Elvis Juice", 3), new Field("Grapefruit infused IPA", 1)));
+    }
+
+    @Test
+    void tokenize_LowercasesAndDropsAccentsAndPunctuation() {
+        assertEquals(List.of("marzen", "bier", "5", "abv"), FullTextIndex.tokenize("Märzen-Bier, 5% ABV"));
+        assertEquals(List.of(), FullTextIndex.tokenize("  -- "));
+    }
+
+    @Test
+    void search_RanksBoostedFieldFirst() {
+        // IPA is in the name of 1 and only in the description of 3
+        assertEquals(List.of(1L, 3L), ids(index.search("ipa", 0, 10).hits()));
+    }
+
+    @Test
+    void search_RanksDocumentsMatchingMoreWordsFirst() {
+        FullTextIndex.Result result = index.search("tropical hazy", 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(2L, 1L), ids(result.hits()));
+    }
+
+    @Test
+    void search_PagesThroughRankedHits() {
+        index.put(4L, List.of(new Field("Tropical Stout", 3)));
+
+        FullTextIndex.Result first = index.search("tropical", 0, 2);
+        FullTextIndex.Result second = index.search("tropical", 2, 2);
+
+        assertEquals(3, first.total());
+        assertEquals(2, first.hits().size());
+        assertEquals(1, second.hits().size());
+        assertEquals(4L, first.hits().getFirst().id());
+        assertTrue(index.search("tropical", 3, 2).hits().isEmpty());
+    }
+
+    @Test
+    void put_ReplacesPreviousDocument() {
+        index.put(1L, List.of(new Field("Dead Pony Club", 3)));
+
+        assertEquals(List.of(3L), ids(index.search("ipa", 0, 10).hits()));
+        assertEquals(List.of(1L), ids(index.search("pony", 0, 10).hits()));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_DropsDocumentFromResults() {
+        index.remove(2L);
+
+        assertEquals(List.of(1L), ids(index.search("tropical", 0, 10).hits()));
+        assertEquals(0, index.search("hazy", 0, 10).total());
+    }
+
+    @Test
+    void search_RanksReplacedDocumentsWithTheIndexedOnes() {
+        Map<Long, List<Field>> replaced = new HashMap<>();
+        replaced.put(1L, List.of(new Field("Dead Pony Club", 3)));
+        replaced.put(2L, null);
+        replaced.put(4L, List.of(new Field("Tropical IPA", 3)));
+
+        FullTextIndex.Result result = index.search("ipa tropical", 0, 10, replaced);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(4L, 3L), ids(result.hits()));
+        assertEquals(List.of(1L, 3L), ids(index.search("ipa", 0, 10).hits()));
+    }
+
+    private static List<Long> ids(List<Hit> hits) {
+        return hits.stream().map(Hit::id).toList();
+    }
+
+}
@@ -3,21 +3,27 @@ package com.haufe.beercatalogue.unit;
 import com.haufe.beercatalogue.dto.ManufacturerDetailDTO;
 import com.haufe.beercatalogue.exception.ResourceNotFoundException;
 import com.haufe.beercatalogue.mapper.ManufacturerMapper;
+import com.haufe.beercatalogue.index.NameSuggestIndex;
 import com.haufe.beercatalogue.model.Manufacturer;
 import com.haufe.beercatalogue.repository.ManufacturerRepository;
 import com.haufe.beercatalogue.service.ManufacturerAuthorizationService;
 import com.haufe.beercatalogue.service.ManufacturerService;
 import com.haufe.beercatalogue.dto.ManufacturerCreateDTO;
+import com.haufe.beercatalogue.cache.CountCache;
+import com.haufe.beercatalogue.cache.ListVersions;
+import com.haufe.beercatalogue.cache.DetailCache;
 
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,7 +53,10 @@ class ManufacturerServiceTest {
         manufacturerAuthorizationService = mock(ManufacturerAuthorizationService.class);
         manufacturerRepository = mock(ManufacturerRepository.class);
         mapper = mock(ManufacturerMapper.class);
-        manufacturerService = new ManufacturerService(manufacturerRepository, mapper, manufacturerAuthorizationService);
+        manufacturerService = new ManufacturerService(manufacturerRepository, mapper, manufacturerAuthorizationService,
+            new CountCache(Manufacturer.class, true, 10), new ListVersions(),
+            new DetailCache<>(Manufacturer.class, Manufacturer::getId, true, 10, Duration.ofMinutes(1)),
+            suggestIndexMock());
 
         manufacturer = new Manufacturer();
         manufacturer.setId(1L);
@@ -82,8 +91,8 @@ class ManufacturerServiceTest {
 
     @Test
     void findAll_ReturnsDetailsDTOList() {
-        Page<Manufacturer> manufacturerPage = new PageImpl<>(List.of(manufacturer), PageRequest.of(0, 10), 1);
-        when(manufacturerRepository.findAll(PageRequest.of(0, 50))).thenReturn(manufacturerPage);
+        Slice<Manufacturer> manufacturerSlice = new SliceImpl<>(List.of(manufacturer), PageRequest.of(0, 50), false);
+        when(manufacturerRepository.findAllBy(PageRequest.of(0, 50))).thenReturn(manufacturerSlice);
         when(mapper.toDetail(manufacturer)).thenReturn(detailDTO);
 
         List<ManufacturerDetailDTO> result = manufacturerService.getList(PageRequest.of(0, 50)).getContent();
@@ -113,4 +122,24 @@ class ManufacturerServiceTest {
         verify(manufacturerRepository).save(manufacturer);
     }
 
+    @Test
+    void getList_CountsOncePerDataChange() {
+        when(manufacturerRepository.findAllBy(PageRequest.of(0, 1)))
+            .thenReturn(new SliceImpl<>(List.of(manufacturer), PageRequest.of(0, 1), true));
+        when(manufacturerRepository.count()).thenReturn(3L);
+
+        Page<ManufacturerDetailDTO> first = manufacturerService.getList(PageRequest.of(0, 1));
+        Page<ManufacturerDetailDTO> second = manufacturerService.getList(PageRequest.of(0, 1));
+
+        assertEquals(3L, first.getTotalElements());
+        assertEquals(3L, second.getTotalElements());
+        verify(manufacturerRepository, times(1)).count();
+    }
+
+    // The class literal only gives the raw type of the generic index
+    @SuppressWarnings("unchecked")
+    private static NameSuggestIndex<Manufacturer> suggestIndexMock() {
+        return mock(NameSuggestIndex.class);
+    }
+
 }
@@ -0,0 +1,99 @@
+package com.haufe.beercatalogue.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.haufe.beercatalogue.index.PrefixIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex();
+        index.load(Map.of(1L, "Punk IPA", 2L, "Hazy Jane", 3L, "Märzen Spezial", 4L, "Pale IPA Ale"));
+    }
+
+    @Test
+    void suggest_MatchesStartOfAnyWord_InKeyOrder() {
+        // "ipa" sorts before "ipa ale"
+        assertEquals(List.of(new PrefixIndex.Entry(1L, "Punk IPA"), new PrefixIndex.Entry(4L, "Pale IPA Ale")),
+            index.suggest("ip", 10));
+        assertEquals(List.of(4L, 1L), ids(index.suggest("p", 10)));
+    }
+
+    @Test
+    void suggest_IgnoresCaseAccentsAndSpacing() {
+        assertEquals(List.of(3L), ids(index.suggest("MARZ", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("punk   i", 10)));
+        assertTrue(index.suggest("unk", 10).isEmpty());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_ReturnsNameOnce_WhenSeveralWordsMatch() {
+        // Both words of Amber Ale start with a, it comes after Pale IPA Ale by id on their common "ale"
+        index.put(5L, "Amber Ale");
+        index.compact();
+
+        assertEquals(List.of(4L, 5L), ids(index.suggest("a", 10)));
+        assertEquals(List.of(4L), ids(index.suggest("a", 1)));
+    }
+
+    @Test
+    void put_ReplacesPreviousName() {
+        index.put(1L, "Dead Pony Club");
+        index.compact();
+
+        assertEquals(List.of(4L), ids(index.suggest("ipa", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("pony", 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_DropsName() {
+        index.remove(2L);
+        index.compact();
+
+        assertTrue(index.suggest("hazy", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void suggest_DoesNotSeePendingWrites_UntilCompacted() {
+        index.put(5L, "Punk Lager");
+
+        assertEquals(List.of(1L), ids(index.suggest("punk", 10)));
+        assertEquals(4, index.size());
+        assertTrue(index.hasPendingWrites());
+
+        index.compact();
+        assertEquals(List.of(1L, 5L), ids(index.suggest("punk", 10)));
+    }
+
+    @Test
+    void withWrites_LaysWrittenNamesOverSuggestions_InKeyOrder() {
+        // 1 is renamed away from "p", 4 is removed, 5 is new and sorts between the indexed names
+        Map<Long, String> written = new HashMap<>();
+        written.put(1L, "Dead Pony Club");
+        written.put(4L, null);
+        written.put(5L, "Pilsner Urquell");
+
+        List<PrefixIndex.Entry> suggestions = index.suggest("p", 2 + written.size());
+        assertEquals(List.of(5L, 1L), ids(PrefixIndex.withWrites(suggestions, written, "p", 2)));
+        assertEquals(List.of(5L), ids(PrefixIndex.withWrites(suggestions, written, "p", 1)));
+        assertTrue(PrefixIndex.withWrites(index.suggest("hazy", 1), Map.of(2L, "Lager"), "hazy", 1).isEmpty());
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Entry> entries) {
+        return entries.stream().map(PrefixIndex.Entry::id).toList();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.haufe.beercatalogue.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.haufe.beercatalogue.index.SortedAbvIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class SortedAbvIndexTest {
+
+    private SortedAbvIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SortedAbvIndex();
+        index.load(List.of(
+            new SortedAbvIndex.Entry(3L, 8.0, "Imperial Stout"),
+            new SortedAbvIndex.Entry(1L, 4.5, "Session IPA"),
+            new SortedAbvIndex.Entry(4L, 5.5, "Pale Ale"),
+            new SortedAbvIndex.Entry(2L, 5.5, "Lager")));
+    }
+
+    @Test
+    void range_ReturnsBeersWithinInclusiveBounds_SortedByAbvThenId() {
+        assertEquals(List.of(2L, 4L, 3L), ids(index.range(5.5, 8.0, false, 0, 10)));
+        assertEquals(List.of(3L, 4L, 2L), ids(index.range(5.5, 8.0, true, 0, 10)));
+        assertEquals(3, index.count(5.5, 8.0));
+    }
+
+    @Test
+    void range_TreatsNullBoundsAsOpen() {
+        assertEquals(List.of(1L, 2L, 4L), ids(index.range(null, 5.5, false, 0, 10)));
+        assertEquals(List.of(3L), ids(index.range(6.0, null, false, 0, 10)));
+        assertEquals(4, index.count(null, null));
+    }
+
+    @Test
+    void range_PagesWithOffsetAndLimit() {
+        assertEquals(List.of(4L, 2L), ids(index.range(null, null, true, 1, 2)));
+        assertEquals(List.of(3L), ids(index.range(null, null, false, 3, 2)));
+        assertTrue(index.range(null, null, false, 4, 2).isEmpty());
+    }
+
+    @Test
+    void put_MovesUpdatedBeerAndAddsNewOnes() {
+        index.put(1L, 9.0, "Session IPA, now stronger");
+        index.put(5L, 5.0, "Pilsner");
+        index.remove(4L);
+
+        assertTrue(index.hasPendingWrites());
+        index.compact();
+        assertFalse(index.hasPendingWrites());
+        List<SortedAbvIndex.Entry> all = index.range(null, null, false, 0, 10);
+        assertEquals(List.of(5L, 2L, 3L, 1L), ids(all));
+        assertEquals("Session IPA, now stronger", all.get(3).name());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void reads_DoNotSeePendingWrites_UntilCompacted() {
+        index.put(5L, 5.0, "Pilsner");
+        index.remove(3L);
+
+        assertEquals(List.of(1L, 2L, 4L, 3L), ids(index.range(null, null, false, 0, 10)));
+        assertEquals(4, index.count(null, null));
+        assertTrue(index.hasPendingWrites());
+
+        index.compact();
+        assertEquals(List.of(1L, 5L, 2L, 4L), ids(index.range(null, null, false, 0, 10)));
+    }
+
+    @Test
+    void range_LaysWrittenEntriesOverIndexedOnes() {
+        // 1 moves to the top, 4 is removed, 5 is new, 2 keeps its place with another name
+        Map<Long, SortedAbvIndex.Entry> written = new HashMap<>();
+        written.put(1L, new SortedAbvIndex.Entry(1L, 9.0, "Session IPA, now stronger"));
+        written.put(4L, null);
+        written.put(5L, new SortedAbvIndex.Entry(5L, 5.0, "Pilsner"));
+        written.put(2L, new SortedAbvIndex.Entry(2L, 5.5, "Helles"));
+
+        assertEquals(List.of(5L, 2L, 3L, 1L), ids(index.range(null, null, false, 0, 10, written)));
+        assertEquals(List.of(3L, 2L), ids(index.range(null, null, true, 1, 2, written)));
+        assertEquals("Helles", index.range(5.5, 5.5, false, 0, 10, written).getFirst().name());
+        assertEquals(4, index.count(null, null, written));
+        assertEquals(3, index.count(5.0, 8.0, written));
+        assertEquals(List.of(1L, 2L, 4L, 3L), ids(index.range(null, null, false, 0, 10)));
+    }
+
+    private static List<Long> ids(List<SortedAbvIndex.Entry> entries) {
+        return entries.stream().map(SortedAbvIndex.Entry::id).toList();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.haufe.beercatalogue.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.haufe.beercatalogue.index.TrigramIndex;
+
+import java.util.Set;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1L, "Punk IPA");
+        index.put(2L, "Hazy Jane");
+        index.put(3L, "Elvis Juice");
+    }
+
+    @Test
+    void search_ReturnsIdsContainingQuery_IgnoringCase() {
+        assertEquals(Set.of(1L), index.search("pUnK"));
+        assertEquals(Set.of(2L), index.search("jane"));
+    }
+
+    @Test
+    void search_VerifiesCandidates_WhenTrigramsMatchOutOfOrder() {
+        index.put(4L, "abcxbcd");
+
+        // Every trigram of "abcd" is present in value 4, but not contiguously
+        assertTrue(index.search("abcd").isEmpty());
+    }
+
+    @Test
+    void put_ReplacesPreviousValue() {
+        index.put(1L, "Dead Pony Club");
+
+        assertTrue(index.search("punk").isEmpty());
+        assertEquals(Set.of(1L), index.search("pony"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_DropsIdFromResults() {
+        index.remove(2L);
+
+        assertTrue(index.search("hazy").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void canResolve_RequiresAFullTrigram() {
+        assertFalse(TrigramIndex.canResolve("ip"));
+        assertFalse(TrigramIndex.canResolve(null));
+        assertTrue(TrigramIndex.canResolve("ipa"));
+        assertThrows(IllegalArgumentException.class, () -> index.search("ip"));
+    }
+
+}